@@ -0,0 +1,235 @@
+package com.vericv.platform.analytics;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// HyperLogLog distinct-count sketch with 2^PRECISION one-byte registers (2 KB, ~2.3% standard error).
+// Sketches of the same precision merge by register-wise max, so hourly sketches roll up into daily ones
+// and any range of buckets can be unioned without keeping the raw viewers.
+// Most profiles see few viewers per bucket, so a sketch starts sparse: only its non-zero registers,
+// three bytes each when stored. Past SPARSE_LIMIT of them it switches to the dense 2 KB array for good.
+// Both forms hold the same registers and give the same estimate.
+public class HyperLogLog {
+
+    public static final int PRECISION = 11;
+    public static final int REGISTERS = 1 << PRECISION;
+
+    // Sparse form is at most 1.5 KB stored; beyond that the dense array is smaller
+    static final int SPARSE_LIMIT = 512;
+    private static final int SPARSE_ENTRY_BYTES = 3;
+
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    // Dense registers, or null while sparse
+    private byte[] registers;
+
+    // While sparse: the non-zero registers as (index << 8 | value), sorted by index
+    private int[] sparse;
+    private int sparseSize;
+
+    public HyperLogLog() {
+        this.sparse = new int[8];
+    }
+
+    private HyperLogLog(byte[] registers) {
+        this.registers = registers;
+    }
+
+    // Reads either stored form: REGISTERS bytes (dense) or three bytes per non-zero register (sparse)
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes == null) {
+            return new HyperLogLog();
+        }
+        if (bytes.length == REGISTERS) {
+            return new HyperLogLog(bytes.clone());
+        }
+        if (bytes.length % SPARSE_ENTRY_BYTES != 0 || bytes.length / SPARSE_ENTRY_BYTES > SPARSE_LIMIT) {
+            throw new IllegalArgumentException("Expected " + REGISTERS + " registers or a sparse sketch, got "
+                    + bytes.length + " bytes");
+        }
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < bytes.length; i += SPARSE_ENTRY_BYTES) {
+            int index = (bytes[i] & 0xff) << 8 | (bytes[i + 1] & 0xff);
+            if (index >= REGISTERS) {
+                throw new IllegalArgumentException("Register index out of range: " + index);
+            }
+            sketch.set(index, bytes[i + 2]);
+        }
+        return sketch;
+    }
+
+    public byte[] toBytes() {
+        if (registers != null) {
+            return registers.clone();
+        }
+        byte[] bytes = new byte[sparseSize * SPARSE_ENTRY_BYTES];
+        for (int i = 0; i < sparseSize; i++) {
+            int index = sparse[i] >>> 8;
+            bytes[i * SPARSE_ENTRY_BYTES] = (byte) (index >>> 8);
+            bytes[i * SPARSE_ENTRY_BYTES + 1] = (byte) index;
+            bytes[i * SPARSE_ENTRY_BYTES + 2] = (byte) sparse[i];
+        }
+        return bytes;
+    }
+
+    public void offer(String value) {
+        offerHash(hash(value));
+    }
+
+    public void offerHash(long hash) {
+        int index = (int) (hash >>> (64 - PRECISION));
+        // Position of the first 1-bit in the remaining 64 - PRECISION bits
+        long rest = hash << PRECISION;
+        int rank = rest == 0 ? 64 - PRECISION + 1 : Long.numberOfLeadingZeros(rest) + 1;
+        set(index, (byte) rank);
+    }
+
+    public HyperLogLog merge(HyperLogLog other) {
+        if (other.registers == null) {
+            for (int i = 0; i < other.sparseSize; i++) {
+                set(other.sparse[i] >>> 8, (byte) other.sparse[i]);
+            }
+            return this;
+        }
+        if (registers == null) {
+            toDense();
+        }
+        for (int i = 0; i < REGISTERS; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+        return this;
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        if (registers != null) {
+            for (byte register : registers) {
+                sum += 1.0 / (1L << register);
+                if (register == 0) {
+                    zeros++;
+                }
+            }
+        } else {
+            zeros = REGISTERS - sparseSize;
+            sum = zeros;
+            for (int i = 0; i < sparseSize; i++) {
+                sum += 1.0 / (1L << (byte) sparse[i]);
+            }
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        // Small cardinalities: linear counting over empty registers is far more accurate
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public boolean isEmpty() {
+        if (registers == null) {
+            return sparseSize == 0;
+        }
+        for (byte register : registers) {
+            if (register != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    boolean isSparse() {
+        return registers == null;
+    }
+
+    // Raises register index to value if it is lower
+    private void set(int index, byte value) {
+        if (registers != null) {
+            if (value > registers[index]) {
+                registers[index] = value;
+            }
+            return;
+        }
+        int position = find(index);
+        if (position >= 0) {
+            if (value > (byte) sparse[position]) {
+                sparse[position] = index << 8 | value;
+            }
+            return;
+        }
+        if (sparseSize == SPARSE_LIMIT) {
+            toDense();
+            registers[index] = value;
+            return;
+        }
+        int insertAt = -position - 1;
+        if (sparseSize == sparse.length) {
+            sparse = Arrays.copyOf(sparse, Math.min(2 * sparse.length, SPARSE_LIMIT));
+        }
+        System.arraycopy(sparse, insertAt, sparse, insertAt + 1, sparseSize - insertAt);
+        sparse[insertAt] = index << 8 | value;
+        sparseSize++;
+    }
+
+    // Binary search by register index; (-insertion point - 1) when absent
+    private int find(int index) {
+        int low = 0;
+        int high = sparseSize - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midIndex = sparse[mid] >>> 8;
+            if (midIndex < index) {
+                low = mid + 1;
+            } else if (midIndex > index) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -low - 1;
+    }
+
+    private void toDense() {
+        registers = denseRegisters();
+        sparse = null;
+        sparseSize = 0;
+    }
+
+    private byte[] denseRegisters() {
+        if (registers != null) {
+            return registers;
+        }
+        byte[] dense = new byte[REGISTERS];
+        for (int i = 0; i < sparseSize; i++) {
+            dense[sparse[i] >>> 8] = (byte) sparse[i];
+        }
+        return dense;
+    }
+
+    // 64-bit FNV-1a followed by the SplitMix64 finalizer, so similar keys spread over all registers
+    static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 30;
+        h *= 0xbf58476d1ce4e5b9L;
+        h ^= h >>> 27;
+        h *= 0x94d049bb133111ebL;
+        h ^= h >>> 31;
+        return h;
+    }
+
+    // Same registers, whichever form holds them
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof HyperLogLog other && Arrays.equals(denseRegisters(), other.denseRegisters());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(denseRegisters());
+    }
+}
@@ -0,0 +1,206 @@
+package com.vericv.platform.analytics;
+
+import com.vericv.platform.dto.directory.ProfileViewStats;
+import com.vericv.platform.model.ProfileViewBucket;
+import com.vericv.platform.repository.ProfileViewBucketRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Per-profile view analytics rolled up into hourly and daily buckets (UTC). Each bucket stores
+// a view count and a HyperLogLog sketch of viewer fingerprints, so storage and query cost grow
+// with the number of buckets, never with the number of views. Views are accumulated in memory
+// per hour and merged into both the hour and the day row on each flush.
+@Component
+public class ProfileViewAnalytics {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfileViewAnalytics.class);
+
+    private static final Pattern RANGE = Pattern.compile("(\\d{1,3})([hd])");
+    private static final int MAX_HOURS = 168;
+    private static final int MAX_DAYS = 365;
+
+    private final ProfileViewBucketRepository bucketRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentHashMap<PendingKey, PendingBucket> pending = new ConcurrentHashMap<>();
+
+    @Value("${vericv.directory.views.hourly-retention-days:7}")
+    private int hourlyRetentionDays;
+
+    @Value("${vericv.directory.views.daily-retention-days:400}")
+    private int dailyRetentionDays;
+
+    public ProfileViewAnalytics(ProfileViewBucketRepository bucketRepository,
+            TransactionTemplate transactionTemplate) {
+        this.bucketRepository = bucketRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    // viewerKey identifies the viewer (account or client fingerprint); it is hashed into the sketch, never stored
+    public void record(Long entryId, String viewerKey) {
+        PendingKey key = new PendingKey(entryId, now().truncatedTo(ChronoUnit.HOURS));
+        long hash = HyperLogLog.hash(viewerKey);
+        while (!pending.computeIfAbsent(key, k -> new PendingBucket()).add(hash)) {
+            // Bucket was drained between lookup and add; the flush has already removed it, so retry
+        }
+    }
+
+    // ===== Query =====
+
+    // range: <n>h (up to 168, hourly points) or <n>d (up to 365, daily points)
+    @Transactional(readOnly = true)
+    public ProfileViewStats stats(Long entryId, String range) {
+        Matcher matcher = RANGE.matcher(range == null ? "" : range.trim().toLowerCase());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Invalid range. Use e.g. 24h, 7d or 30d");
+        }
+        int count = Integer.parseInt(matcher.group(1));
+        boolean hourly = matcher.group(2).equals("h");
+        if (count < 1 || count > (hourly ? MAX_HOURS : MAX_DAYS)) {
+            throw new IllegalArgumentException("Range must be 1-" + MAX_HOURS + "h or 1-" + MAX_DAYS + "d");
+        }
+
+        ProfileViewBucket.Granularity granularity = hourly
+                ? ProfileViewBucket.Granularity.HOUR
+                : ProfileViewBucket.Granularity.DAY;
+        ChronoUnit unit = hourly ? ChronoUnit.HOURS : ChronoUnit.DAYS;
+        LocalDateTime end = now().truncatedTo(unit).plus(1, unit);
+        LocalDateTime start = end.minus(count, unit);
+
+        Map<LocalDateTime, ProfileViewBucket> buckets = new HashMap<>();
+        for (ProfileViewBucket bucket : bucketRepository.findRange(entryId, granularity, start, end)) {
+            buckets.put(bucket.getBucketStart(), bucket);
+        }
+
+        long totalViews = 0;
+        HyperLogLog allViewers = new HyperLogLog();
+        List<ProfileViewStats.Point> series = new ArrayList<>(count);
+        for (LocalDateTime at = start; at.isBefore(end); at = at.plus(1, unit)) {
+            ProfileViewBucket bucket = buckets.get(at);
+            if (bucket == null) {
+                series.add(new ProfileViewStats.Point(at, 0, 0));
+                continue;
+            }
+            HyperLogLog viewers = HyperLogLog.fromBytes(bucket.getViewerSketch());
+            allViewers.merge(viewers);
+            totalViews += bucket.getViews();
+            series.add(new ProfileViewStats.Point(at, bucket.getViews(), viewers.estimate()));
+        }
+        return new ProfileViewStats(count + matcher.group(2), granularity.name().toLowerCase(),
+                totalViews, allViewers.estimate(), series);
+    }
+
+    // ===== Maintenance =====
+
+    // Synchronized so the shutdown flush cannot interleave with a scheduled one
+    @Scheduled(fixedDelayString = "${vericv.directory.views.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        for (PendingKey key : new ArrayList<>(pending.keySet())) {
+            PendingBucket bucket = pending.remove(key);
+            if (bucket == null) {
+                continue;
+            }
+            Snapshot snapshot = bucket.close();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    mergeInto(key.entryId, ProfileViewBucket.Granularity.HOUR, key.hour, snapshot);
+                    mergeInto(key.entryId, ProfileViewBucket.Granularity.DAY, key.hour.truncatedTo(ChronoUnit.DAYS),
+                            snapshot);
+                });
+            } catch (RuntimeException e) {
+                // Put the views back for the next attempt
+                pending.computeIfAbsent(key, k -> new PendingBucket()).absorb(snapshot);
+                log.warn("Profile view rollup flush failed for entry {}: {}", key.entryId, e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    @Scheduled(cron = "${vericv.directory.views.retention-cron:0 17 3 * * *}", zone = "UTC")
+    @Transactional
+    public void purgeExpired() {
+        LocalDateTime today = now().truncatedTo(ChronoUnit.DAYS);
+        int hours = bucketRepository.deleteOlderThan(ProfileViewBucket.Granularity.HOUR,
+                today.minusDays(hourlyRetentionDays));
+        int days = bucketRepository.deleteOlderThan(ProfileViewBucket.Granularity.DAY,
+                today.minusDays(dailyRetentionDays));
+        log.info("Purged {} hourly and {} daily profile view buckets", hours, days);
+    }
+
+    // Runs in the caller's transaction (entry removal). Unflushed views of the entry are dropped too,
+    // so the next flush does not write rows for an entry that no longer exists. Synchronized with
+    // flush: a flush already writing the entry's rows finishes first, and those rows are deleted here.
+    public synchronized void deleteStats(Long entryId) {
+        pending.keySet().removeIf(key -> key.entryId.equals(entryId));
+        bucketRepository.deleteByEntryId(entryId);
+    }
+
+    private void mergeInto(Long entryId, ProfileViewBucket.Granularity granularity, LocalDateTime bucketStart,
+            Snapshot snapshot) {
+        ProfileViewBucket bucket = bucketRepository
+                .findByEntryIdAndGranularityAndBucketStart(entryId, granularity, bucketStart)
+                .orElseGet(() -> new ProfileViewBucket(entryId, granularity, bucketStart));
+        HyperLogLog viewers = HyperLogLog.fromBytes(bucket.getViewerSketch()).merge(snapshot.viewers);
+        bucket.setViewerSketch(viewers.toBytes());
+        bucket.setViews(bucket.getViews() + snapshot.views);
+        bucketRepository.save(bucket);
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now(ZoneOffset.UTC);
+    }
+
+    // ===== Internal State =====
+
+    private record PendingKey(Long entryId, LocalDateTime hour) {
+    }
+
+    private record Snapshot(long views, HyperLogLog viewers) {
+    }
+
+    // Views of one entry in one hour since the last flush. Closed once drained; adds then fail and retry.
+    private static class PendingBucket {
+        private final HyperLogLog viewers = new HyperLogLog();
+        private long views;
+        private boolean closed;
+
+        synchronized boolean add(long viewerHash) {
+            if (closed) {
+                return false;
+            }
+            viewers.offerHash(viewerHash);
+            views++;
+            return true;
+        }
+
+        synchronized void absorb(Snapshot snapshot) {
+            viewers.merge(snapshot.viewers);
+            views += snapshot.views;
+        }
+
+        synchronized Snapshot close() {
+            closed = true;
+            return new Snapshot(views, viewers);
+        }
+    }
+}
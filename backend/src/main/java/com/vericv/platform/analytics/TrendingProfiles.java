@@ -0,0 +1,196 @@
+package com.vericv.platform.analytics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Most-viewed profiles over an exponentially decayed window, kept in bounded memory with the
+// Space-Saving heavy-hitters algorithm: capacity counters in an indexed min-heap; a view of an
+// untracked profile takes over the smallest counter. Decay uses forward weights (a view at time t
+// weighs e^((t - landmark) / tau)), so counters never need touching when time passes, only an
+// occasional rescale. Views are only counted per profile on the request thread (a LongAdder, no
+// shared lock); the scheduled refresh drains those counts into the heap and precomputes the top
+// list that reads return, so the heap is only ever touched by one thread at a time.
+@Component
+public class TrendingProfiles {
+
+    // Rescale before weights approach double overflow (e^700)
+    private static final double MAX_EXPONENT = 50;
+
+    // Profiles with views waiting for the next refresh, per sketch counter. Views of further
+    // profiles are dropped until then: under that much traffic they are not heavy hitters yet.
+    private static final int PENDING_PER_COUNTER = 16;
+
+    private final int capacity;
+    private final int maxResults;
+    private final double tau;
+
+    // Views since the last refresh. An id idle for a whole interval is removed at refresh; a view
+    // racing with that removal can be lost, which a trending list tolerates.
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    private final int maxPending;
+
+    // Min-heap on count; position maps entry id -> heap slot. Guarded by this.
+    private final long[] entryIds;
+    private final double[] counts;
+    private final double[] errors;
+    private final Map<Long, Integer> position = new HashMap<>();
+    private int size;
+    private long landmark = System.currentTimeMillis();
+
+    private volatile List<Score> top = List.of();
+
+    public TrendingProfiles(@Value("${vericv.directory.trending.capacity:1000}") int capacity,
+            @Value("${vericv.directory.trending.max-results:50}") int maxResults,
+            @Value("${vericv.directory.trending.half-life-minutes:360}") double halfLifeMinutes) {
+        this.capacity = capacity;
+        this.maxResults = maxResults;
+        this.tau = halfLifeMinutes * 60_000 / Math.log(2);
+        this.maxPending = capacity * PENDING_PER_COUNTER;
+        this.entryIds = new long[capacity];
+        this.counts = new double[capacity];
+        this.errors = new double[capacity];
+    }
+
+    // A profile's decayed view score at the last refresh. score is the guaranteed part (count minus the
+    // overestimate inherited on eviction), so profiles that just took over a counter do not rank on noise.
+    public record Score(Long entryId, double score, double error) {
+    }
+
+    // O(1) and lock-free for profiles already pending; counted into the sketch at the next refresh
+    public void record(Long entryId) {
+        LongAdder views = pending.get(entryId);
+        if (views == null) {
+            if (pending.size() >= maxPending) {
+                return;
+            }
+            views = pending.computeIfAbsent(entryId, id -> new LongAdder());
+        }
+        views.increment();
+    }
+
+    // Best first, at most max-results (callers over-fetch here to allow for hidden profiles)
+    public List<Score> top(int limit) {
+        List<Score> current = top;
+        return current.subList(0, Math.min(Math.max(limit, 0), current.size()));
+    }
+
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    @Scheduled(fixedDelayString = "${vericv.directory.trending.refresh-interval-ms:10000}")
+    public void refresh() {
+        refresh(System.currentTimeMillis());
+    }
+
+    // Views drained at now weigh as if they happened now; the interval is tiny next to the half-life
+    synchronized void refresh(long now) {
+        double exponent = (now - landmark) / tau;
+        if (exponent > MAX_EXPONENT) {
+            rescale(now);
+            exponent = 0;
+        }
+        double weight = Math.exp(exponent);
+        for (Map.Entry<Long, LongAdder> views : pending.entrySet()) {
+            long count = views.getValue().sumThenReset();
+            if (count > 0) {
+                add(views.getKey(), count * weight);
+            } else {
+                pending.remove(views.getKey(), views.getValue());
+            }
+        }
+
+        double decay = Math.exp(-(now - landmark) / tau);
+        List<Score> scores = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            scores.add(new Score(entryIds[i], (counts[i] - errors[i]) * decay, errors[i] * decay));
+        }
+        scores.sort((a, b) -> Double.compare(b.score(), a.score()));
+        top = List.copyOf(scores.subList(0, Math.min(maxResults * 2, scores.size())));
+    }
+
+    // ===== Heap =====
+
+    private void add(Long entryId, double weight) {
+        Integer slot = position.get(entryId);
+        if (slot != null) {
+            counts[slot] += weight;
+            siftDown(slot);
+        } else if (size < capacity) {
+            entryIds[size] = entryId;
+            counts[size] = weight;
+            errors[size] = 0;
+            position.put(entryId, size);
+            siftUp(size++);
+        } else {
+            // Evict the minimum; the newcomer inherits its count as possible overestimate
+            position.remove(entryIds[0]);
+            entryIds[0] = entryId;
+            errors[0] = counts[0];
+            counts[0] += weight;
+            position.put(entryId, 0);
+            siftDown(0);
+        }
+    }
+
+    private void rescale(long now) {
+        double factor = Math.exp(-(now - landmark) / tau);
+        for (int i = 0; i < size; i++) {
+            counts[i] *= factor;
+            errors[i] *= factor;
+        }
+        landmark = now;
+    }
+
+    private void siftUp(int slot) {
+        while (slot > 0) {
+            int parent = (slot - 1) / 2;
+            if (counts[parent] <= counts[slot]) {
+                return;
+            }
+            swap(slot, parent);
+            slot = parent;
+        }
+    }
+
+    private void siftDown(int slot) {
+        while (true) {
+            int smallest = slot;
+            int left = 2 * slot + 1;
+            int right = left + 1;
+            if (left < size && counts[left] < counts[smallest]) {
+                smallest = left;
+            }
+            if (right < size && counts[right] < counts[smallest]) {
+                smallest = right;
+            }
+            if (smallest == slot) {
+                return;
+            }
+            swap(slot, smallest);
+            slot = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        long id = entryIds[a];
+        entryIds[a] = entryIds[b];
+        entryIds[b] = id;
+        double count = counts[a];
+        counts[a] = counts[b];
+        counts[b] = count;
+        double error = errors[a];
+        errors[a] = errors[b];
+        errors[b] = error;
+        position.put(entryIds[a], a);
+        position.put(entryIds[b], b);
+    }
+}
@@ -0,0 +1,115 @@
+package com.vericv.platform.analytics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Recognizes repeat views of a profile by the same viewer within the de-duplication window,
+// so reloads and crawlers count once. Backed by two Bloom filters sized for expected-views
+// per window at the configured false-positive rate: views are added to the current filter and
+// looked up in both; every window the previous one is dropped and a fresh one started.
+// A repeat is therefore caught for at least one and at most two windows after the first view.
+// False positives (a first view taken for a repeat) happen at roughly the configured rate.
+@Component
+public class ViewDeduplicator {
+
+    private final boolean enabled;
+    private final long windowMillis;
+    private final int bits;
+    private final int hashes;
+
+    private volatile Generation generation;
+
+    public ViewDeduplicator(@Value("${vericv.directory.views.dedup.enabled:true}") boolean enabled,
+            @Value("${vericv.directory.views.dedup.window-minutes:30}") long windowMinutes,
+            @Value("${vericv.directory.views.dedup.expected-views:1000000}") long expectedViews,
+            @Value("${vericv.directory.views.dedup.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.enabled = enabled;
+        this.windowMillis = windowMinutes * 60_000;
+        // Optimal Bloom filter size m = -n ln p / (ln 2)^2 and probe count k = m / n ln 2
+        double optimalBits = -expectedViews * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        this.bits = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, Math.ceil(optimalBits)));
+        this.hashes = Math.max(1, (int) Math.round((double) bits / expectedViews * Math.log(2)));
+        this.generation = new Generation(new BloomFilter(bits), new BloomFilter(bits), System.currentTimeMillis());
+    }
+
+    // True if this viewer already viewed the profile within the window; otherwise remembers the view
+    public boolean isRepeat(String viewerKey, Long entryId) {
+        return isRepeat(viewerKey, entryId, System.currentTimeMillis());
+    }
+
+    boolean isRepeat(String viewerKey, Long entryId, long now) {
+        if (!enabled) {
+            return false;
+        }
+        Generation current = rotateIfDue(now);
+        long hash = HyperLogLog.hash(viewerKey + "|" + entryId);
+        if (current.active.mightContain(hash, hashes) || current.previous.mightContain(hash, hashes)) {
+            return true;
+        }
+        current.active.add(hash, hashes);
+        return false;
+    }
+
+    // Memory held by both filters, in bytes
+    public long memoryBytes() {
+        return 2L * (bits / 64 + 1) * Long.BYTES;
+    }
+
+    private Generation rotateIfDue(long now) {
+        Generation current = generation;
+        if (now - current.startedAt < windowMillis) {
+            return current;
+        }
+        synchronized (this) {
+            if (generation == current) {
+                // Two windows idle: nothing in the active filter is recent enough to keep either
+                BloomFilter previous = now - current.startedAt < 2 * windowMillis ? current.active : new BloomFilter(bits);
+                generation = new Generation(new BloomFilter(bits), previous, now);
+            }
+            return generation;
+        }
+    }
+
+    private record Generation(BloomFilter active, BloomFilter previous, long startedAt) {
+    }
+
+    // Lock-free bit set probed with double hashing (Kirsch-Mitzenmacher): probe i is h1 + i * h2.
+    // h2 is forced odd: were it 0, every probe would land on the same bit.
+    private static class BloomFilter {
+        private final AtomicLongArray words;
+        private final int bits;
+
+        BloomFilter(int bits) {
+            this.bits = bits;
+            this.words = new AtomicLongArray(bits / 64 + 1);
+        }
+
+        boolean mightContain(long hash, int probes) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32) | 1;
+            for (int i = 0; i < probes; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bits);
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void add(long hash, int probes) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32) | 1;
+            for (int i = 0; i < probes; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bits);
+                long mask = 1L << bit;
+                int word = bit >>> 6;
+                long current = words.get(word);
+                while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                    current = words.get(word);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.vericv.platform.config;
+
+import com.vericv.platform.model.IdSequences;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Migration path for databases created while ids were IDENTITY columns. Schema update creates
+// the new "<table>_seq" sequences starting at 1, below ids already in the table; before the
+// application takes traffic, each sequence is moved past its table's highest id. Runs on every
+// startup but only ever moves a sequence forward, so it is a no-op once applied.
+// The old IDENTITY defaults stay in place; nothing inserts without an id any more.
+@Component
+public class IdSequenceMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceMigration.class);
+
+    // setval to the highest id: the next nextval returns max + increment, above every existing id
+    private static final String ALIGN_SQL = """
+            SELECT setval('%1$s_seq', m.max_id)
+            FROM (SELECT MAX(id) AS max_id FROM %1$s) m, %1$s_seq s
+            WHERE m.max_id IS NOT NULL AND (m.max_id > s.last_value OR NOT s.is_called)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Depends on the EntityManagerFactory so the sequences exist (schema update) before this runs
+    public IdSequenceMigration(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void alignSequences() {
+        String database = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            return;
+        }
+        for (String table : IdSequences.TABLES) {
+            Long value = jdbcTemplate.query(String.format(ALIGN_SQL, table),
+                    rs -> rs.next() ? rs.getLong(1) : null);
+            if (value != null) {
+                log.info("Moved {}_seq past existing ids (now {})", table, value);
+            }
+        }
+    }
+}
@@ -1,41 +1,81 @@
 package com.vericv.platform.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.vericv.platform.dto.cv.CVBatchItem;
+import com.vericv.platform.dto.cv.CVBatchRequest;
+import com.vericv.platform.dto.cv.CVDocumentRequest;
 import com.vericv.platform.dto.cv.CreateCVRequest;
 import com.vericv.platform.dto.cv.EducationDto;
 import com.vericv.platform.dto.cv.ExperienceDto;
 import com.vericv.platform.model.CV;
+import com.vericv.platform.model.CVDocument;
 import com.vericv.platform.model.Education;
 import com.vericv.platform.model.Experience;
 import com.vericv.platform.model.User;
+import com.vericv.platform.repository.CVDocumentRepository;
 import com.vericv.platform.repository.UserRepository;
-import com.vericv.platform.repository.CVRepository;
+import com.vericv.platform.service.CVBulkExporter;
+import com.vericv.platform.service.CVBulkImporter;
+import com.vericv.platform.service.CVDocumentService;
 import com.vericv.platform.service.CVService;
+import com.vericv.platform.service.PublicCVResponseCache;
+import com.vericv.platform.util.ConditionalRequests;
+import com.vericv.platform.util.JsonMergePatch;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/cv")
 @Tag(name = "CV Management", description = "Endpoints for managing CVs, education, and experience")
 public class CVController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String GZIP = "application/gzip";
+    private static final String STALE_EDIT = "This entry was changed by another edit; reload it and try again";
+
     private final CVService cvService;
     private final UserRepository userRepository;
-    private final CVRepository cvRepository;
+    private final CVDocumentService cvDocumentService;
+    private final PublicCVResponseCache responseCache;
+    private final CVBulkImporter bulkImporter;
+    private final CVBulkExporter bulkExporter;
 
-    public CVController(CVService cvService, UserRepository userRepository, CVRepository cvRepository) {
+    public CVController(CVService cvService, UserRepository userRepository, CVDocumentService cvDocumentService,
+            PublicCVResponseCache responseCache, CVBulkImporter bulkImporter, CVBulkExporter bulkExporter) {
         this.cvService = cvService;
         this.userRepository = userRepository;
-        this.cvRepository = cvRepository;
+        this.cvDocumentService = cvDocumentService;
+        this.responseCache = responseCache;
+        this.bulkImporter = bulkImporter;
+        this.bulkExporter = bulkExporter;
     }
 
     // ===== CV Endpoints =====
@@ -59,11 +99,10 @@ public class CVController {
     @Operation(summary = "Get my CV")
     public ResponseEntity<?> getMyCV(Authentication authentication) {
         try {
-            Long userId = getUserIdFromAuth(authentication);
-            CV cv = cvService.getUserCV(userId);
+            CV cv = cvService.getUserCVAggregate(authentication.getName());
 
-            List<Education> education = cvService.getEducationByCvId(cv.getId());
-            List<Experience> experience = cvService.getExperienceByCvId(cv.getId());
+            List<Education> education = new ArrayList<>(cv.getEducation());
+            List<Experience> experience = new ArrayList<>(cv.getExperience());
 
             Map<String, Object> response = new HashMap<>();
             response.put("cv", cv);
@@ -76,57 +115,89 @@ public class CVController {
         }
     }
 
-    @GetMapping("/{cvId}")
-    @Operation(summary = "Get CV by CV ID (public endpoint)")
-    public ResponseEntity<?> getCVById(@PathVariable Long cvId) {
+    @PutMapping("/me/document")
+    @SecurityRequirement(name = "bearer-jwt")
+    @Operation(summary = "Create or replace my whole CV",
+            description = "Entries with an id are updated, entries without one are added, stored entries not listed are removed")
+    public ResponseEntity<?> saveMyCVDocument(@Valid @RequestBody CVDocumentRequest request,
+            Authentication authentication) {
         try {
-            CV cv = cvRepository.findById(cvId)
-                    .orElseThrow(() -> new RuntimeException("CV not found"));
+            Long userId = getUserIdFromAuth(authentication);
+            CVDocument document = cvService.saveDocument(userId, request);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(document.getDocument());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
 
-            if (!cv.getIsPublic()) {
-                return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                        .body(Map.of("error", "This CV is private"));
+    @GetMapping("/{cvId}")
+    @Operation(summary = "Get CV by CV ID (public endpoint)")
+    public ResponseEntity<?> getCVById(@PathVariable Long cvId, WebRequest request,
+            HttpServletResponse response) throws IOException {
+        // The version columns pick the cached response (only for the current version of a public CV,
+        // whichever instance changed it last) and answer revalidations without loading the document
+        Optional<CVDocumentRepository.Version> current = cvDocumentService.findVersionByCvId(cvId);
+        if (current.isPresent() && Boolean.TRUE.equals(current.get().getIsPublic())) {
+            Optional<PublicCVResponseCache.Entry> cached =
+                    responseCache.get(current.get().getCvId(), current.get().getVersion());
+            if (cached.isPresent()) {
+                return writeCached(cached.get(), request, response);
+            }
+            Optional<ResponseEntity<?>> notModified = notModified(current.get(), request);
+            if (notModified.isPresent()) {
+                return notModified.get();
             }
-
-            List<Education> education = cvService.getEducationByCvId(cv.getId());
-            List<Experience> experience = cvService.getExperienceByCvId(cv.getId());
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("cv", cv);
-            response.put("education", education);
-            response.put("experience", experience);
-
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(Map.of("error", "CV not found"));
         }
+        return cvDocumentService.findByCvId(cvId)
+                .<ResponseEntity<?>>map(this::publicDocument)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "CV not found")));
     }
 
     @GetMapping("/user/{userId}")
     @Operation(summary = "Get CV by User ID (public endpoint)")
-    public ResponseEntity<?> getCVByUserId(@PathVariable Long userId) {
-        try {
-            CV cv = cvService.getUserCV(userId);
-
-            if (!cv.getIsPublic()) {
-                return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                        .body(Map.of("error", "This CV is private"));
+    public ResponseEntity<?> getCVByUserId(@PathVariable Long userId, WebRequest request,
+            HttpServletResponse response) throws IOException {
+        Optional<CVDocumentRepository.Version> current = cvDocumentService.findVersionByUserId(userId);
+        if (current.isPresent() && Boolean.TRUE.equals(current.get().getIsPublic())) {
+            Optional<PublicCVResponseCache.Entry> cached =
+                    responseCache.get(current.get().getCvId(), current.get().getVersion());
+            if (cached.isPresent()) {
+                return writeCached(cached.get(), request, response);
             }
+            Optional<ResponseEntity<?>> notModified = notModified(current.get(), request);
+            if (notModified.isPresent()) {
+                return notModified.get();
+            }
+        }
+        return cvDocumentService.findByUserId(userId)
+                .<ResponseEntity<?>>map(this::publicDocument)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "CV not found for this user")));
+    }
 
-            List<Education> education = cvService.getEducationByCvId(cv.getId());
-            List<Experience> experience = cvService.getExperienceByCvId(cv.getId());
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("cv", cv);
-            response.put("education", education);
-            response.put("experience", experience);
-
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(Map.of("error", "CV not found for this user"));
+    @PostMapping("/batch")
+    @Operation(summary = "Get public CVs for a list of users (public endpoint)",
+            description = "Up to 200 user IDs; results come back in request order with status OK, PRIVATE or NOT_FOUND")
+    public ResponseEntity<?> getCVsByUserIds(@Valid @RequestBody CVBatchRequest request) {
+        Set<Long> userIds = new LinkedHashSet<>(request.getUserIds());
+        Map<Long, CVDocument> documents = cvDocumentService.findByUserIds(userIds);
+
+        // Visibility is enforced per item, the same way as the single-CV endpoints
+        List<CVBatchItem> results = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            CVDocument document = documents.get(userId);
+            if (document == null) {
+                results.add(CVBatchItem.notFound(userId));
+            } else if (!Boolean.TRUE.equals(document.getIsPublic())) {
+                results.add(CVBatchItem.privateCV(userId));
+            } else {
+                results.add(CVBatchItem.found(userId, document.getDocument()));
+            }
         }
+        return ResponseEntity.ok(Map.of("results", results));
     }
 
     @PutMapping("/{cvId}")
@@ -144,6 +215,23 @@ public class CVController {
         }
     }
 
+    @PatchMapping(value = "/{cvId}", consumes = {JsonMergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    @SecurityRequirement(name = "bearer-jwt")
+    @Operation(summary = "Partially update CV", description = "JSON Merge Patch (RFC 7396); must include the \"version\" being edited")
+    public ResponseEntity<?> patchCV(@PathVariable Long cvId,
+            @RequestBody JsonNode patch,
+            Authentication authentication) {
+        try {
+            Long userId = getUserIdFromAuth(authentication);
+            CV cv = cvService.patchCV(cvId, userId, patch);
+            return ResponseEntity.ok(cv);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", STALE_EDIT));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @DeleteMapping("/{cvId}")
     @SecurityRequirement(name = "bearer-jwt")
     @Operation(summary = "Delete CV")
@@ -189,6 +277,23 @@ public class CVController {
         }
     }
 
+    @PatchMapping(value = "/education/{educationId}", consumes = {JsonMergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    @SecurityRequirement(name = "bearer-jwt")
+    @Operation(summary = "Partially update education", description = "JSON Merge Patch (RFC 7396); must include the \"version\" being edited")
+    public ResponseEntity<?> patchEducation(@PathVariable Long educationId,
+            @RequestBody JsonNode patch,
+            Authentication authentication) {
+        try {
+            Long userId = getUserIdFromAuth(authentication);
+            Education education = cvService.patchEducation(educationId, userId, patch);
+            return ResponseEntity.ok(education);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", STALE_EDIT));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @DeleteMapping("/education/{educationId}")
     @SecurityRequirement(name = "bearer-jwt")
     @Operation(summary = "Delete education")
@@ -235,6 +340,23 @@ public class CVController {
         }
     }
 
+    @PatchMapping(value = "/experience/{experienceId}", consumes = {JsonMergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    @SecurityRequirement(name = "bearer-jwt")
+    @Operation(summary = "Partially update experience", description = "JSON Merge Patch (RFC 7396); must include the \"version\" being edited")
+    public ResponseEntity<?> patchExperience(@PathVariable Long experienceId,
+            @RequestBody JsonNode patch,
+            Authentication authentication) {
+        try {
+            Long userId = getUserIdFromAuth(authentication);
+            Experience experience = cvService.patchExperience(experienceId, userId, patch);
+            return ResponseEntity.ok(experience);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", STALE_EDIT));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @DeleteMapping("/experience/{experienceId}")
     @SecurityRequirement(name = "bearer-jwt")
     @Operation(summary = "Delete experience")
@@ -249,7 +371,142 @@ public class CVController {
         }
     }
 
-    // ===== Helper Method =====
+    // ===== Admin Endpoints =====
+
+    @PostMapping("/admin/import")
+    @PreAuthorize("hasRole('ADMIN')")
+    @SecurityRequirement(name = "bearer-jwt")
+    @Operation(summary = "Bulk import CVs", description = "Stream a JSON Lines or CSV file (format=jsonl|csv, or a text/csv body; gzip Content-Encoding accepted) of new accounts with their CVs. Rejected records are listed in a reject file")
+    public ResponseEntity<?> importCVs(@RequestParam(required = false) String format, HttpServletRequest request) {
+        try {
+            CVBulkImporter.Format importFormat = format != null ? CVBulkImporter.Format.parse(format)
+                    : request.getContentType() != null && request.getContentType().startsWith("text/csv")
+                            ? CVBulkImporter.Format.CSV : CVBulkImporter.Format.JSONL;
+            InputStream in = request.getInputStream();
+            if ("gzip".equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING))) {
+                in = new GZIPInputStream(in, 64 * 1024);
+            }
+            return ResponseEntity.ok(bulkImporter.importUpload(in, importFormat));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping(value = "/admin/import/rejects/{name}", produces = NDJSON)
+    @PreAuthorize("hasRole('ADMIN')")
+    @SecurityRequirement(name = "bearer-jwt")
+    @Operation(summary = "Download a reject file", description = "Rejected records of a bulk import, one JSON object per line with line number and reason")
+    public ResponseEntity<?> getImportRejects(@PathVariable String name) {
+        return bulkImporter.rejectFile(name)
+                .<ResponseEntity<?>>map(file -> ResponseEntity.ok()
+                        .contentType(MediaType.parseMediaType(NDJSON))
+                        .body(new FileSystemResource(file)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Reject file not found")));
+    }
+
+    @GetMapping(value = "/admin/export", produces = {NDJSON, GZIP})
+    @PreAuthorize("hasRole('ADMIN')")
+    @SecurityRequirement(name = "bearer-jwt")
+    @Operation(summary = "Export public CVs", description = "Every public CV with its education and experience, one JSON document per line in CV id order; gzip=true for a compressed file")
+    public ResponseEntity<StreamingResponseBody> exportPublicCVs(@RequestParam(defaultValue = "false") boolean gzip) {
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+                bulkExporter.exportPublic(compressed);
+                compressed.finish();
+            } else {
+                bulkExporter.exportPublic(out);
+            }
+        };
+        String fileName = gzip ? "public-cvs.jsonl.gz" : "public-cvs.jsonl";
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? GZIP : NDJSON))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
+    // ===== Helper Methods =====
+
+    // The stored document is already the response body ({"cv", "education", "experience"}).
+    // no-cache lets clients and shared caches keep it but revalidate on every use.
+    // Public documents also go into the response cache under their version.
+    private ResponseEntity<?> publicDocument(CVDocument document) {
+        if (!Boolean.TRUE.equals(document.getIsPublic())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "This CV is private"));
+        }
+        String eTag = eTag(document.getCvId(), document.getVersion());
+        long lastModified = ConditionalRequests.epochMillis(document.getUpdatedAt());
+        responseCache.put(document.getCvId(), document.getVersion(), eTag, lastModified, document.getDocument());
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .eTag(eTag)
+                .lastModified(lastModified)
+                .body(document.getDocument());
+    }
+
+    // Cache hit: no document read or Jackson work, the stored bytes are copied to the response.
+    // The gzip body is a different representation, so it gets its own strong ETag.
+    private ResponseEntity<?> writeCached(PublicCVResponseCache.Entry entry, WebRequest request,
+            HttpServletResponse response) throws IOException {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean compressed = acceptEncoding != null && acceptEncoding.contains("gzip") && entry.gzip() != null;
+        String eTag = compressed ? gzipETag(entry.eTag()) : entry.eTag();
+        if (ConditionalRequests.notModified(request, entry.lastModified(), entry.eTag(), gzipETag(entry.eTag()))) {
+            return notModified(eTag, entry.lastModified());
+        }
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, entry.lastModified());
+        if (compressed) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            response.setContentLength(entry.gzip().capacity());
+        } else {
+            response.setContentLength(entry.json().capacity());
+        }
+        responseCache.write(entry, compressed, response.getOutputStream());
+        // Response already written
+        return null;
+    }
+
+    // Revalidation from the version columns alone; empty means build the full response.
+    // Either encoding's ETag revalidates, and the 304 names the one the client holds.
+    private Optional<ResponseEntity<?>> notModified(CVDocumentRepository.Version version, WebRequest request) {
+        String eTag = eTag(version.getCvId(), version.getVersion());
+        String gzipETag = gzipETag(eTag);
+        long lastModified = ConditionalRequests.epochMillis(version.getUpdatedAt());
+        if (!Boolean.TRUE.equals(version.getIsPublic())
+                || !ConditionalRequests.notModified(request, lastModified, eTag, gzipETag)) {
+            return Optional.empty();
+        }
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        boolean heldGzip = ifNoneMatch != null && ifNoneMatch.contains(gzipETag);
+        return Optional.of(notModified(heldGzip ? gzipETag : eTag, lastModified));
+    }
+
+    private static ResponseEntity<?> notModified(String eTag, long lastModified) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .eTag(eTag)
+                .lastModified(lastModified)
+                .build();
+    }
+
+    private static String eTag(Long cvId, Long version) {
+        return "\"cv-" + cvId + "-" + version + "\"";
+    }
+
+    private static String gzipETag(String eTag) {
+        return eTag.substring(0, eTag.length() - 1) + "-gz\"";
+    }
 
     private Long getUserIdFromAuth(Authentication authentication) {
         String email = authentication.getName();
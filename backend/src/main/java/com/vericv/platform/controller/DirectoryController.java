@@ -1,40 +1,117 @@
 package com.vericv.platform.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.vericv.platform.dto.directory.DirectoryListing;
+import com.vericv.platform.dto.directory.DirectoryPage;
+import com.vericv.platform.dto.directory.FacetedPage;
+import com.vericv.platform.dto.directory.TrendingProfile;
 import com.vericv.platform.model.DirectoryEntry;
 import com.vericv.platform.model.User;
 import com.vericv.platform.repository.UserRepository;
+import com.vericv.platform.search.SuggestionIndex;
 import com.vericv.platform.service.DirectoryService;
+import com.vericv.platform.util.ConditionalRequests;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/directory")
 @Tag(name = "Directory", description = "Phone book directory for verified professionals")
 public class DirectoryController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final DirectoryService directoryService;
     private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
 
-    public DirectoryController(DirectoryService directoryService, UserRepository userRepository) {
+    public DirectoryController(DirectoryService directoryService, UserRepository userRepository,
+            ObjectMapper objectMapper) {
         this.directoryService = directoryService;
         this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
     }
 
     // ===== PUBLIC Endpoints (No Auth Required) =====
 
     @GetMapping("/search")
-    @Operation(summary = "Search directory", description = "Search for professionals in the directory (PUBLIC)")
-    public ResponseEntity<?> searchDirectory(@RequestParam(required = false) String q) {
+    @Operation(summary = "Search directory", description = "Search for professionals in the directory (PUBLIC). Set fuzzy=true to tolerate typos; pass the returned next cursor to get the following page; fields=fullName,headline limits each result to those fields")
+    public ResponseEntity<?> searchDirectory(@RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "false") boolean fuzzy,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            DirectoryPage page = directoryService.searchDirectory(q, fuzzy, DirectoryListing.parseFields(fields),
+                    cursor, limit);
+            return ResponseEntity.ok(pageResponse(page));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping(value = "/search", produces = NDJSON)
+    @Operation(summary = "Stream directory", description = "Stream every visible entry as newline-delimited JSON (PUBLIC). Keyword search is not streamed")
+    public ResponseEntity<StreamingResponseBody> streamDirectory(@RequestParam(required = false) String q,
+            @RequestParam(required = false) String fields) {
+        if (q != null && !q.isBlank()) {
+            return streamError("Streaming is only available for the full listing; omit q");
+        }
+        return streamEntries(null, fields);
+    }
+
+    @GetMapping(value = "/filter/badge/{badge}", produces = NDJSON)
+    @Operation(summary = "Stream by verification badge", description = "Stream every profile with a badge level as newline-delimited JSON (PUBLIC)")
+    public ResponseEntity<StreamingResponseBody> streamByBadge(@PathVariable String badge,
+            @RequestParam(required = false) String fields) {
+        DirectoryEntry.VerificationBadge badgeLevel;
         try {
-            List<DirectoryEntry> results = directoryService.searchDirectory(q);
+            badgeLevel = DirectoryEntry.VerificationBadge.valueOf(badge.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return streamError("Invalid badge level. Use: NONE, BRONZE, SILVER, GOLD, or PLATINUM");
+        }
+        return streamEntries(badgeLevel, fields);
+    }
+
+    @GetMapping("/suggest")
+    @Operation(summary = "Autocomplete", description = "Top completions for a prefix across names, companies, roles, institutions and degrees (PUBLIC)")
+    public ResponseEntity<?> suggest(@RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<Map<String, Object>> suggestions = directoryService.suggest(prefix, limit).stream()
+                .map(term -> Map.<String, Object>of("text", term.getLabel(), "type", term.getType()))
+                .toList();
+        return ResponseEntity.ok(Map.of(
+                "suggestions", suggestions,
+                "count", suggestions.size()));
+    }
+
+    @GetMapping("/trending")
+    @Operation(summary = "Trending profiles", description = "Most-viewed profiles with recent views weighted most (exponential decay), hottest first (PUBLIC)")
+    public ResponseEntity<?> getTrending(@RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        try {
+            List<TrendingProfile> results = directoryService.getTrending(DirectoryListing.parseFields(fields), limit);
             return ResponseEntity.ok(Map.of(
                     "results", results,
                     "count", results.size()));
@@ -45,10 +122,17 @@ public class DirectoryController {
 
     @GetMapping("/profile/{userId}")
     @Operation(summary = "View public profile", description = "View a professional's public profile (PUBLIC)")
-    public ResponseEntity<?> getPublicProfile(@PathVariable Long userId) {
+    public ResponseEntity<?> getPublicProfile(@PathVariable Long userId, Authentication authentication,
+            HttpServletRequest request) {
         try {
-            DirectoryEntry profile = directoryService.getPublicProfile(userId);
-            return ResponseEntity.ok(profile);
+            DirectoryEntry profile = directoryService.getPublicProfile(userId, viewerKey(authentication, request));
+            // Spring answers a matching If-None-Match / If-Modified-Since with 304 and no body.
+            // The view is recorded either way.
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache())
+                    .eTag(profileETag(profile))
+                    .lastModified(ConditionalRequests.epochMillis(profile.getUpdatedAt()))
+                    .body(profile);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", e.getMessage()));
@@ -56,18 +140,48 @@ public class DirectoryController {
     }
 
     @GetMapping("/filter/badge/{badge}")
-    @Operation(summary = "Filter by verification badge", description = "Get all profiles with specific badge level (PUBLIC)")
-    public ResponseEntity<?> filterByBadge(@PathVariable String badge) {
+    @Operation(summary = "Filter by verification badge", description = "Get profiles with specific badge level, one page at a time (PUBLIC)")
+    public ResponseEntity<?> filterByBadge(@PathVariable String badge,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        DirectoryEntry.VerificationBadge badgeLevel;
         try {
-            DirectoryEntry.VerificationBadge badgeLevel = DirectoryEntry.VerificationBadge.valueOf(badge.toUpperCase());
-            List<DirectoryEntry> results = directoryService.getByVerificationBadge(badgeLevel);
-            return ResponseEntity.ok(Map.of(
-                    "results", results,
-                    "badge", badge,
-                    "count", results.size()));
+            badgeLevel = DirectoryEntry.VerificationBadge.valueOf(badge.toUpperCase());
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest()
                     .body(Map.of("error", "Invalid badge level. Use: NONE, BRONZE, SILVER, GOLD, or PLATINUM"));
+        }
+
+        try {
+            DirectoryPage page = directoryService.getByVerificationBadge(badgeLevel,
+                    DirectoryListing.parseFields(fields), cursor, limit);
+            Map<String, Object> response = pageResponse(page);
+            response.put("badge", badge);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/facets")
+    @Operation(summary = "Faceted filter", description = "Combine badge, location and current employer filters; every response carries facet counts (PUBLIC)")
+    public ResponseEntity<?> facetedSearch(@RequestParam(required = false) String badge,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) String employer,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            FacetedPage page = directoryService.facetedSearch(badge, location, employer,
+                    DirectoryListing.parseFields(fields), cursor, limit);
+            Map<String, Object> response = new HashMap<>();
+            response.put("results", page.getResults());
+            response.put("count", page.getResults().size());
+            response.put("total", page.getTotal());
+            response.put("next", page.getNext());
+            response.put("facets", page.getFacets());
+            return ResponseEntity.ok(response);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
@@ -122,6 +236,19 @@ public class DirectoryController {
         }
     }
 
+    @GetMapping("/me/stats")
+    @SecurityRequirement(name = "bearer-jwt")
+    @Operation(summary = "Profile view statistics", description = "Views and estimated unique viewers of your profile over a range: 1-168h (hourly points) or 1-365d (daily points)")
+    public ResponseEntity<?> getMyViewStats(@RequestParam(defaultValue = "30d") String range,
+            Authentication authentication) {
+        try {
+            Long userId = getUserIdFromAuth(authentication);
+            return ResponseEntity.ok(directoryService.getProfileViewStats(userId, range));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @PutMapping("/me")
     @SecurityRequirement(name = "bearer-jwt")
     @Operation(summary = "Update directory entry", description = "Update your headline and location")
@@ -172,7 +299,109 @@ public class DirectoryController {
         }
     }
 
-    // ===== Helper Method =====
+    // ===== ADMIN Endpoints =====
+
+    @PostMapping("/admin/reindex")
+    @PreAuthorize("hasRole('ADMIN')")
+    @SecurityRequirement(name = "bearer-jwt")
+    @Operation(summary = "Rebuild search index", description = "Rebuild the directory search index in the background; searches keep working meanwhile")
+    public ResponseEntity<?> rebuildSearchIndex() {
+        if (!directoryService.hasSearchIndex()) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Search mode does not use a separate index"));
+        }
+        if (!directoryService.rebuildSearchIndex()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "A rebuild is already running"));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(Map.of("message", "Search index rebuild started"));
+    }
+
+    @PostMapping("/admin/bulk-reindex")
+    @PreAuthorize("hasRole('ADMIN')")
+    @SecurityRequirement(name = "bearer-jwt")
+    @Operation(summary = "Recompute all directory entries", description = "Recompute verification badge and searchable text of every entry in parallel chunks; resumes an unfinished job from its checkpoint")
+    public ResponseEntity<?> startBulkReindex() {
+        if (!directoryService.startBulkReindex()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "A bulk reindex is already running"));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(directoryService.getBulkReindexStatus());
+    }
+
+    @GetMapping("/admin/bulk-reindex")
+    @PreAuthorize("hasRole('ADMIN')")
+    @SecurityRequirement(name = "bearer-jwt")
+    @Operation(summary = "Bulk reindex progress", description = "Checkpoint, entries updated and throughput of the latest bulk reindex job")
+    public ResponseEntity<?> getBulkReindexStatus() {
+        return ResponseEntity.ok(directoryService.getBulkReindexStatus());
+    }
+
+    @GetMapping("/admin/cache-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    @SecurityRequirement(name = "bearer-jwt")
+    @Operation(summary = "Search cache statistics", description = "Hit/miss counters of the directory search result cache")
+    public ResponseEntity<?> getSearchCacheStats() {
+        return ResponseEntity.ok(directoryService.getSearchCacheStats());
+    }
+
+    // ===== Helper Methods =====
+
+    private ResponseEntity<StreamingResponseBody> streamEntries(DirectoryEntry.VerificationBadge badge,
+            String fields) {
+        Set<String> selected;
+        try {
+            selected = DirectoryListing.parseFields(fields);
+        } catch (IllegalArgumentException e) {
+            return streamError(e.getMessage());
+        }
+
+        // One JSON document per line; the servlet output buffer decides when bytes go out
+        ObjectWriter writer = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> directoryService.streamDirectory(badge, selected, listing -> {
+            try {
+                writer.writeValue(out, listing);
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    // The same {"error": ...} document as the paged endpoints; it still has to be a streaming body,
+    // since Spring only streams handlers declared to return ResponseEntity<StreamingResponseBody>
+    private ResponseEntity<StreamingResponseBody> streamError(String message) {
+        return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> objectMapper.writeValue(out, Map.of("error", message)));
+    }
+
+    // updated_at moves with every entity write; profile_views is written behind by plain SQL
+    private static String profileETag(DirectoryEntry profile) {
+        return "\"profile-" + profile.getId() + "-" + ConditionalRequests.epochMillis(profile.getUpdatedAt())
+                + "-" + profile.getProfileViews() + "\"";
+    }
+
+    // Signed-in viewers count once per account; anonymous ones by client address and user agent
+    private String viewerKey(Authentication authentication, HttpServletRequest request) {
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "anon:" + request.getRemoteAddr() + "|" + request.getHeader("User-Agent");
+    }
+
+    private Map<String, Object> pageResponse(DirectoryPage page) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("results", page.getResults());
+        response.put("count", page.getResults().size());
+        response.put("next", page.getNext());
+        return response;
+    }
 
     private Long getUserIdFromAuth(Authentication authentication) {
         String email = authentication.getName();
@@ -0,0 +1,50 @@
+package com.vericv.platform.dto.cv;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+// One user's slot in a batch lookup. document is the stored CV document, written out as-is,
+// in the same shape GET /api/cv/user/{userId} returns; only present when status is OK.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CVBatchItem {
+
+    public enum Status {
+        OK, PRIVATE, NOT_FOUND
+    }
+
+    private final Long userId;
+    private final Status status;
+
+    @JsonRawValue
+    private final String document;
+
+    private CVBatchItem(Long userId, Status status, String document) {
+        this.userId = userId;
+        this.status = status;
+        this.document = document;
+    }
+
+    public static CVBatchItem found(Long userId, String document) {
+        return new CVBatchItem(userId, Status.OK, document);
+    }
+
+    public static CVBatchItem privateCV(Long userId) {
+        return new CVBatchItem(userId, Status.PRIVATE, null);
+    }
+
+    public static CVBatchItem notFound(Long userId) {
+        return new CVBatchItem(userId, Status.NOT_FOUND, null);
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getDocument() {
+        return document;
+    }
+}
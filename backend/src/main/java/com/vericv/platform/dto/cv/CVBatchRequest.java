@@ -0,0 +1,33 @@
+package com.vericv.platform.dto.cv;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class CVBatchRequest {
+
+    public static final int MAX_USER_IDS = 200;
+
+    @NotEmpty(message = "userIds is required")
+    @Size(max = MAX_USER_IDS, message = "At most " + MAX_USER_IDS + " userIds per request")
+    private List<@NotNull Long> userIds;
+
+    // Constructors
+    public CVBatchRequest() {
+    }
+
+    public CVBatchRequest(List<Long> userIds) {
+        this.userIds = userIds;
+    }
+
+    // Getters and Setters
+    public List<Long> getUserIds() {
+        return userIds;
+    }
+
+    public void setUserIds(List<Long> userIds) {
+        this.userIds = userIds;
+    }
+}
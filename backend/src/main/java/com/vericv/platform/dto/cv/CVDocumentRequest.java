@@ -0,0 +1,78 @@
+package com.vericv.platform.dto.cv;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// A whole CV for PUT /api/cv/me/document. Entries carrying an id update that stored entry,
+// entries without one are added, and stored entries not listed are removed.
+public class CVDocumentRequest {
+
+    @NotBlank(message = "Headline is required")
+    @Size(max = 200, message = "Headline must be less than 200 characters")
+    private String headline;
+
+    @Size(max = 2000, message = "Summary must be less than 2000 characters")
+    private String summary;
+
+    private Boolean isPublic = true;
+
+    @Valid
+    @NotNull
+    @Size(max = 100, message = "At most 100 education entries")
+    private List<EducationDto> education = new ArrayList<>();
+
+    @Valid
+    @NotNull
+    @Size(max = 100, message = "At most 100 experience entries")
+    private List<ExperienceDto> experience = new ArrayList<>();
+
+    // Constructors
+    public CVDocumentRequest() {
+    }
+
+    // Getters and Setters
+    public String getHeadline() {
+        return headline;
+    }
+
+    public void setHeadline(String headline) {
+        this.headline = headline;
+    }
+
+    public String getSummary() {
+        return summary;
+    }
+
+    public void setSummary(String summary) {
+        this.summary = summary;
+    }
+
+    public Boolean getIsPublic() {
+        return isPublic;
+    }
+
+    public void setIsPublic(Boolean isPublic) {
+        this.isPublic = isPublic;
+    }
+
+    public List<EducationDto> getEducation() {
+        return education;
+    }
+
+    public void setEducation(List<EducationDto> education) {
+        this.education = education;
+    }
+
+    public List<ExperienceDto> getExperience() {
+        return experience;
+    }
+
+    public void setExperience(List<ExperienceDto> experience) {
+        this.experience = experience;
+    }
+}
@@ -0,0 +1,40 @@
+package com.vericv.platform.dto.cv;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+// One record of a bulk CV import: a new account with its whole CV. JSON Lines records use these
+// property names; CSV files use them as column headers, with education and experience as JSON arrays.
+public class CVImportRecord extends CVDocumentRequest {
+
+    @NotBlank(message = "Email is required")
+    @Email(message = "Email should be valid")
+    @Size(max = 255)
+    private String email;
+
+    @NotBlank(message = "Full name is required")
+    @Size(max = 255)
+    private String fullName;
+
+    // Constructors
+    public CVImportRecord() {
+    }
+
+    // Getters and Setters
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    public void setFullName(String fullName) {
+        this.fullName = fullName;
+    }
+}
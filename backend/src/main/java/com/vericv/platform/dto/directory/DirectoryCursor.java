@@ -0,0 +1,72 @@
+package com.vericv.platform.dto.directory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Opaque paging token for directory listings.
+// Keyset cursors hold the (profileViews, id) of the last entry returned; ranked searches,
+// which are already capped at max-results, page by offset into the ranking instead.
+public class DirectoryCursor {
+
+    private static final DirectoryCursor FIRST = new DirectoryCursor(Integer.MAX_VALUE, Long.MAX_VALUE, 0);
+
+    private final int profileViews;
+    private final long id;
+    private final int offset;
+
+    private DirectoryCursor(int profileViews, long id, int offset) {
+        this.profileViews = profileViews;
+        this.id = id;
+        this.offset = offset;
+    }
+
+    public static DirectoryCursor first() {
+        return FIRST;
+    }
+
+    public static DirectoryCursor after(DirectoryListing last) {
+        return new DirectoryCursor(last.getProfileViews(), last.getId(), 0);
+    }
+
+    public static DirectoryCursor atOffset(int offset) {
+        return new DirectoryCursor(Integer.MAX_VALUE, Long.MAX_VALUE, offset);
+    }
+
+    public static DirectoryCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+            if (parts.length == 3 && parts[0].equals("k")) {
+                return new DirectoryCursor(Integer.parseInt(parts[1]), Long.parseLong(parts[2]), 0);
+            }
+            if (parts.length == 2 && parts[0].equals("o")) {
+                int offset = Integer.parseInt(parts[1]);
+                if (offset >= 0) {
+                    return atOffset(offset);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // fall through to the error below
+        }
+        throw new IllegalArgumentException("Invalid cursor");
+    }
+
+    public String encode() {
+        String raw = offset > 0 ? "o:" + offset : "k:" + profileViews + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public int getProfileViews() {
+        return profileViews;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+}
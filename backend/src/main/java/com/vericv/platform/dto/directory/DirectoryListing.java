@@ -0,0 +1,98 @@
+package com.vericv.platform.dto.directory;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.vericv.platform.model.DirectoryEntry;
+import jakarta.persistence.Tuple;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// Lean row for directory list endpoints: only the columns the listing shows, never searchableText
+// or audit timestamps. With a sparse fieldset the unselected properties stay null and are omitted.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DirectoryListing {
+
+    public static final List<String> FIELDS = List.of(
+            "id", "userId", "fullName", "headline", "location", "verificationBadge", "profileViews", "lastActive");
+
+    // Always selected: they make up the paging cursor
+    public static final List<String> KEY_FIELDS = List.of("id", "profileViews");
+
+    private Long id;
+    private Long userId;
+    private String fullName;
+    private String headline;
+    private String location;
+    private DirectoryEntry.VerificationBadge verificationBadge;
+    private Integer profileViews;
+    private LocalDateTime lastActive;
+
+    // Parses a fields= parameter; null or blank selects every listing field
+    public static Set<String> parseFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return new LinkedHashSet<>(FIELDS);
+        }
+        Set<String> selected = new LinkedHashSet<>(KEY_FIELDS);
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (!FIELDS.contains(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name + ". Use any of " + FIELDS);
+            }
+            selected.add(name);
+        }
+        return selected;
+    }
+
+    public static DirectoryListing fromTuple(Tuple tuple, Set<String> fields) {
+        DirectoryListing listing = new DirectoryListing();
+        for (String field : fields) {
+            Object value = tuple.get(field);
+            switch (field) {
+                case "id" -> listing.id = (Long) value;
+                case "userId" -> listing.userId = (Long) value;
+                case "fullName" -> listing.fullName = (String) value;
+                case "headline" -> listing.headline = (String) value;
+                case "location" -> listing.location = (String) value;
+                case "verificationBadge" -> listing.verificationBadge = (DirectoryEntry.VerificationBadge) value;
+                case "profileViews" -> listing.profileViews = (Integer) value;
+                case "lastActive" -> listing.lastActive = (LocalDateTime) value;
+                default -> throw new IllegalArgumentException("Unknown field: " + field);
+            }
+        }
+        return listing;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    public String getHeadline() {
+        return headline;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public DirectoryEntry.VerificationBadge getVerificationBadge() {
+        return verificationBadge;
+    }
+
+    public Integer getProfileViews() {
+        return profileViews;
+    }
+
+    public LocalDateTime getLastActive() {
+        return lastActive;
+    }
+}
@@ -0,0 +1,42 @@
+package com.vericv.platform.dto.directory;
+
+import java.util.List;
+import java.util.function.Function;
+
+// One page of directory results; next is null on the last page
+public class DirectoryPage {
+
+    private final List<DirectoryListing> results;
+    private final String next;
+
+    public DirectoryPage(List<DirectoryListing> results, String next) {
+        this.results = results;
+        this.next = next;
+    }
+
+    // Page from a keyset query that fetched limit + 1 rows
+    public static DirectoryPage fromKeyset(List<DirectoryListing> rows, int limit) {
+        if (rows.size() <= limit) {
+            return new DirectoryPage(rows, null);
+        }
+        List<DirectoryListing> page = rows.subList(0, limit);
+        return new DirectoryPage(page, DirectoryCursor.after(page.get(limit - 1)).encode());
+    }
+
+    // Page from a complete, already-ranked id list; only the ids on the page are loaded
+    public static DirectoryPage fromRanked(List<Long> rankedIds, DirectoryCursor cursor, int limit,
+            Function<List<Long>, List<DirectoryListing>> loader) {
+        int from = Math.min(cursor.getOffset(), rankedIds.size());
+        int to = Math.min(from + limit, rankedIds.size());
+        String next = to < rankedIds.size() ? DirectoryCursor.atOffset(to).encode() : null;
+        return new DirectoryPage(loader.apply(rankedIds.subList(from, to)), next);
+    }
+
+    public List<DirectoryListing> getResults() {
+        return results;
+    }
+
+    public String getNext() {
+        return next;
+    }
+}
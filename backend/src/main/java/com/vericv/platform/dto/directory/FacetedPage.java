@@ -0,0 +1,39 @@
+package com.vericv.platform.dto.directory;
+
+import java.util.List;
+import java.util.Map;
+
+// One page of faceted directory results plus per-facet value counts
+public class FacetedPage {
+
+    private final List<DirectoryListing> results;
+    private final int total;
+    private final String next;
+
+    // facet name -> (value -> count), values ordered by count
+    private final Map<String, Map<String, Integer>> facets;
+
+    public FacetedPage(List<DirectoryListing> results, int total, String next,
+            Map<String, Map<String, Integer>> facets) {
+        this.results = results;
+        this.total = total;
+        this.next = next;
+        this.facets = facets;
+    }
+
+    public List<DirectoryListing> getResults() {
+        return results;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public String getNext() {
+        return next;
+    }
+
+    public Map<String, Map<String, Integer>> getFacets() {
+        return facets;
+    }
+}
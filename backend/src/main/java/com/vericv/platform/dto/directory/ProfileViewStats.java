@@ -0,0 +1,68 @@
+package com.vericv.platform.dto.directory;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// View analytics for one profile over a range: totals plus one point per hour or day (UTC).
+// Unique viewer figures are HyperLogLog estimates.
+public class ProfileViewStats {
+
+    private final String range;
+    private final String granularity;
+    private final long totalViews;
+    private final long uniqueViewers;
+    private final List<Point> series;
+
+    public ProfileViewStats(String range, String granularity, long totalViews, long uniqueViewers,
+            List<Point> series) {
+        this.range = range;
+        this.granularity = granularity;
+        this.totalViews = totalViews;
+        this.uniqueViewers = uniqueViewers;
+        this.series = series;
+    }
+
+    public static class Point {
+        private final LocalDateTime start;
+        private final long views;
+        private final long uniqueViewers;
+
+        public Point(LocalDateTime start, long views, long uniqueViewers) {
+            this.start = start;
+            this.views = views;
+            this.uniqueViewers = uniqueViewers;
+        }
+
+        public LocalDateTime getStart() {
+            return start;
+        }
+
+        public long getViews() {
+            return views;
+        }
+
+        public long getUniqueViewers() {
+            return uniqueViewers;
+        }
+    }
+
+    public String getRange() {
+        return range;
+    }
+
+    public String getGranularity() {
+        return granularity;
+    }
+
+    public long getTotalViews() {
+        return totalViews;
+    }
+
+    public long getUniqueViewers() {
+        return uniqueViewers;
+    }
+
+    public List<Point> getSeries() {
+        return series;
+    }
+}
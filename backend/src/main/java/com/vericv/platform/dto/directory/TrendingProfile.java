@@ -0,0 +1,24 @@
+package com.vericv.platform.dto.directory;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+// A directory listing with its decayed view score from the trending sketch
+public class TrendingProfile {
+
+    @JsonUnwrapped
+    private final DirectoryListing listing;
+    private final double trendScore;
+
+    public TrendingProfile(DirectoryListing listing, double trendScore) {
+        this.listing = listing;
+        this.trendScore = trendScore;
+    }
+
+    public DirectoryListing getListing() {
+        return listing;
+    }
+
+    public double getTrendScore() {
+        return trendScore;
+    }
+}
@@ -0,0 +1,22 @@
+package com.vericv.platform.event;
+
+// Published by CVService after any change to a CV or its education and experience entries.
+// Listeners use @TransactionalEventListener so they only react once the change is committed.
+public class CVChangedEvent {
+
+    private final Long userId;
+    private final Long cvId;
+
+    public CVChangedEvent(Long userId, Long cvId) {
+        this.userId = userId;
+        this.cvId = cvId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getCvId() {
+        return cvId;
+    }
+}
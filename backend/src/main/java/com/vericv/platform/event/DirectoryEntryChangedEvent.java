@@ -0,0 +1,67 @@
+package com.vericv.platform.event;
+
+import com.vericv.platform.model.DirectoryEntry;
+
+import java.util.Locale;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Published by DirectoryService whenever a directory entry is saved or removed.
+// Listeners normally use @TransactionalEventListener so they only see committed state.
+public class DirectoryEntryChangedEvent {
+
+    // What searches could see of an entry: whether it is listed and the text keywords match against
+    public record Snapshot(boolean visible, String text) {
+
+        public static Snapshot of(DirectoryEntry entry) {
+            String text = Stream.of(entry.getFullName(), entry.getHeadline(), entry.getSearchableText())
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.joining(" "))
+                    .toLowerCase(Locale.ROOT);
+            return new Snapshot(Boolean.TRUE.equals(entry.getIsVisible()), text);
+        }
+    }
+
+    private final DirectoryEntry entry;
+    private final boolean removed;
+    private final Snapshot before;
+
+    public DirectoryEntryChangedEvent(DirectoryEntry entry, boolean removed, Snapshot before) {
+        this.entry = entry;
+        this.removed = removed;
+        this.before = before;
+    }
+
+    // before is the entry as it was loaded, or null for a new entry
+    public static DirectoryEntryChangedEvent saved(DirectoryEntry entry, Snapshot before) {
+        return new DirectoryEntryChangedEvent(entry, false, before);
+    }
+
+    // entry is the state just before deletion
+    public static DirectoryEntryChangedEvent removed(DirectoryEntry entry) {
+        return new DirectoryEntryChangedEvent(entry, true, Snapshot.of(entry));
+    }
+
+    public Long getUserId() {
+        return entry.getUserId();
+    }
+
+    public DirectoryEntry getEntry() {
+        return entry;
+    }
+
+    public boolean isRemoved() {
+        return removed;
+    }
+
+    // Null for a new entry
+    public Snapshot getBefore() {
+        return before;
+    }
+
+    // Null once removed
+    public Snapshot getAfter() {
+        return removed ? null : Snapshot.of(entry);
+    }
+}
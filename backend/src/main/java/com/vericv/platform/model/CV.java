@@ -4,14 +4,19 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 @Entity
+@DynamicUpdate
 @Table(name = "cvs")
 public class CV {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cvs_seq")
+    @SequenceGenerator(name = "cvs_seq", sequenceName = "cvs_seq", allocationSize = IdSequences.ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "user_id", nullable = false)
@@ -35,12 +40,28 @@ public class CV {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Optimistic lock for concurrent edits; the column default covers rows written before it existed
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     // Relationship: One User can have one CV (for MVP)
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", insertable = false, updatable = false)
     @JsonIgnore // ADD THIS LINE HERE
     private User user;
 
+    // Read side only: loaded by the CVRepository aggregate fetches, not kept in sync on writes
+    @OneToMany(mappedBy = "cv", fetch = FetchType.LAZY)
+    @OrderBy("id")
+    @JsonIgnore
+    private Set<Education> education = new LinkedHashSet<>();
+
+    @OneToMany(mappedBy = "cv", fetch = FetchType.LAZY)
+    @OrderBy("id")
+    @JsonIgnore
+    private Set<Experience> experience = new LinkedHashSet<>();
+
     // Lifecycle callbacks
     @PrePersist
     protected void onCreate() {
@@ -120,6 +141,14 @@ public class CV {
         this.updatedAt = updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public User getUser() {
         return user;
     }
@@ -128,4 +157,12 @@ public class CV {
         this.user = user;
     }
 
+    public Set<Education> getEducation() {
+        return education;
+    }
+
+    public Set<Experience> getExperience() {
+        return experience;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,99 @@
+package com.vericv.platform.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import java.time.LocalDateTime;
+
+// Read model: one precomputed JSON document per CV holding the CV with its education and
+// experience, in the shape the public CV endpoints return. Rewritten by CVDocumentService in
+// the same transaction as every CV change, so a public read is a single indexed lookup.
+@Entity
+@Table(name = "cv_documents")
+public class CVDocument {
+
+    @Id
+    @Column(name = "cv_id")
+    private Long cvId;
+
+    @Column(name = "user_id", nullable = false, unique = true)
+    private Long userId;
+
+    @Column(name = "is_public", nullable = false)
+    private Boolean isPublic;
+
+    // {"cv": {...}, "education": [...], "experience": [...]}; jsonb on Postgres
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false)
+    private String document;
+
+    // Bumped on every rewrite; with cvId it forms the public endpoints' ETag
+    @Column(nullable = false)
+    private Long version = 0L;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // Constructors
+    public CVDocument() {
+    }
+
+    public CVDocument(Long cvId) {
+        this.cvId = cvId;
+    }
+
+    // Getters and Setters
+    public Long getCvId() {
+        return cvId;
+    }
+
+    public void setCvId(Long cvId) {
+        this.cvId = cvId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Boolean getIsPublic() {
+        return isPublic;
+    }
+
+    public void setIsPublic(Boolean isPublic) {
+        this.isPublic = isPublic;
+    }
+
+    public String getDocument() {
+        return document;
+    }
+
+    public void setDocument(String document) {
+        this.document = document;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -7,11 +7,16 @@ import java.time.LocalDateTime;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Entity
-@Table(name = "directory_entries")
+@Table(name = "directory_entries", indexes = {
+        // Backs the (profileViews, id) keyset pages of the listing and badge filter
+        @Index(name = "idx_directory_entries_visible_views", columnList = "is_visible, profile_views, id"),
+        @Index(name = "idx_directory_entries_badge_views", columnList = "verification_badge, is_visible, profile_views, id")
+})
 public class DirectoryEntry {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "directory_entries_seq")
+    @SequenceGenerator(name = "directory_entries_seq", sequenceName = "directory_entries_seq", allocationSize = IdSequences.ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "user_id", nullable = false, unique = true)
@@ -40,7 +45,8 @@ public class DirectoryEntry {
     @Column(name = "searchable_text", length = 2000)
     private String searchableText;
 
-    @Column(name = "profile_views", nullable = false)
+    // Only ProfileViewCounter writes this column (relative UPDATEs); entity saves must not overwrite it
+    @Column(name = "profile_views", nullable = false, updatable = false)
     private Integer profileViews = 0;
 
     @Column(name = "last_active")
@@ -0,0 +1,149 @@
+package com.vericv.platform.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Progress of a bulk directory reindex. Entries with id below checkpointId are done,
+// so an interrupted or failed job resumes from there.
+@Entity
+@Table(name = "directory_reindex_jobs")
+public class DirectoryReindexJob {
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.RUNNING;
+
+    @Column(name = "chunk_size", nullable = false)
+    private Integer chunkSize;
+
+    // Highest entry id when the job started; later entries get their values on insert anyway
+    @Column(name = "max_entry_id", nullable = false)
+    private Long maxEntryId;
+
+    @Column(name = "checkpoint_id", nullable = false)
+    private Long checkpointId = 0L;
+
+    @Column(name = "entries_updated", nullable = false)
+    private Long entriesUpdated = 0L;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @PrePersist
+    protected void onCreate() {
+        startedAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // Constructors
+    public DirectoryReindexJob() {
+    }
+
+    public DirectoryReindexJob(Integer chunkSize, Long maxEntryId) {
+        this.chunkSize = chunkSize;
+        this.maxEntryId = maxEntryId;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Integer getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(Integer chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public Long getMaxEntryId() {
+        return maxEntryId;
+    }
+
+    public void setMaxEntryId(Long maxEntryId) {
+        this.maxEntryId = maxEntryId;
+    }
+
+    public Long getCheckpointId() {
+        return checkpointId;
+    }
+
+    public void setCheckpointId(Long checkpointId) {
+        this.checkpointId = checkpointId;
+    }
+
+    public Long getEntriesUpdated() {
+        return entriesUpdated;
+    }
+
+    public void setEntriesUpdated(Long entriesUpdated) {
+        this.entriesUpdated = entriesUpdated;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+}
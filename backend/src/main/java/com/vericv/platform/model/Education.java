@@ -4,15 +4,21 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "education")
+@DynamicUpdate
+@Table(name = "education", indexes = {
+        // Entries of a CV in id order: per-CV lookups and the merge join of the public export
+        @Index(name = "idx_education_cv_id", columnList = "cv_id, id")
+})
 public class Education {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "education_seq")
+    @SequenceGenerator(name = "education_seq", sequenceName = "education_seq", allocationSize = IdSequences.ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "cv_id", nullable = false)
@@ -50,6 +56,10 @@ public class Education {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cv_id", insertable = false, updatable = false)
     @JsonIgnore
@@ -164,6 +174,14 @@ public class Education {
         this.updatedAt = updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public CV getCv() {
         return cv;
     }
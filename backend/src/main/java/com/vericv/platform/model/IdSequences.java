@@ -0,0 +1,18 @@
+package com.vericv.platform.model;
+
+import java.util.List;
+
+// Ids of the high-volume entities come from pooled database sequences ("<table>_seq") rather than
+// IDENTITY columns: Hibernate can only batch inserts when it knows ids before flushing, and each
+// sequence round trip hands out ALLOCATION_SIZE ids. Sequences must increment by the same amount.
+public final class IdSequences {
+
+    public static final int ALLOCATION_SIZE = 50;
+
+    // Tables whose ids moved from IDENTITY to "<table>_seq"; see IdSequenceMigration
+    public static final List<String> TABLES = List.of("users", "cvs", "education", "experience", "directory_entries",
+            "profile_view_buckets");
+
+    private IdSequences() {
+    }
+}
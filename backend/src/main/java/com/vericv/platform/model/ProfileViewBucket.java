@@ -0,0 +1,100 @@
+package com.vericv.platform.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// One rollup row per directory entry, granularity and UTC bucket start: a view count plus
+// a HyperLogLog sketch of the viewers. Row size is bounded (at most a 2 KB sketch) however many views
+// the bucket took, and a bucket with few viewers stores only a few bytes of sketch.
+@Entity
+@Table(name = "profile_view_buckets", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_profile_view_buckets_bucket", columnNames = {"entry_id", "granularity", "bucket_start"})
+})
+public class ProfileViewBucket {
+
+    public enum Granularity {
+        HOUR, DAY
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "profile_view_buckets_seq")
+    @SequenceGenerator(name = "profile_view_buckets_seq", sequenceName = "profile_view_buckets_seq",
+            allocationSize = IdSequences.ALLOCATION_SIZE)
+    private Long id;
+
+    @Column(name = "entry_id", nullable = false)
+    private Long entryId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private Granularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false)
+    private Long views = 0L;
+
+    // HyperLogLog.toBytes(): sparse below HyperLogLog.SPARSE_LIMIT registers, else HyperLogLog.REGISTERS bytes
+    @Column(name = "viewer_sketch", nullable = false, length = 2048)
+    private byte[] viewerSketch;
+
+    // Constructors
+    public ProfileViewBucket() {
+    }
+
+    public ProfileViewBucket(Long entryId, Granularity granularity, LocalDateTime bucketStart) {
+        this.entryId = entryId;
+        this.granularity = granularity;
+        this.bucketStart = bucketStart;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getEntryId() {
+        return entryId;
+    }
+
+    public void setEntryId(Long entryId) {
+        this.entryId = entryId;
+    }
+
+    public Granularity getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(Granularity granularity) {
+        this.granularity = granularity;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public Long getViews() {
+        return views;
+    }
+
+    public void setViews(Long views) {
+        this.views = views;
+    }
+
+    public byte[] getViewerSketch() {
+        return viewerSketch;
+    }
+
+    public void setViewerSketch(byte[] viewerSketch) {
+        this.viewerSketch = viewerSketch;
+    }
+}
@@ -0,0 +1,39 @@
+package com.vericv.platform.repository;
+
+import com.vericv.platform.model.CVDocument;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CVDocumentRepository extends JpaRepository<CVDocument, Long> {
+
+    Optional<CVDocument> findByUserId(Long userId);
+
+    List<CVDocument> findByUserIdIn(Collection<Long> userIds);
+
+    // Revalidation reads only these columns, never the document itself
+    interface Version {
+        Long getCvId();
+
+        Boolean getIsPublic();
+
+        Long getVersion();
+
+        LocalDateTime getUpdatedAt();
+    }
+
+    Optional<Version> findVersionByCvId(Long cvId);
+
+    Optional<Version> findVersionByUserId(Long userId);
+
+    // CVs that have no document yet (created before the read model existed), oldest first
+    @Query("SELECT c.id FROM CV c WHERE NOT EXISTS (SELECT 1 FROM CVDocument d WHERE d.cvId = c.id) ORDER BY c.id")
+    List<Long> findCvIdsWithoutDocument(Pageable pageable);
+}
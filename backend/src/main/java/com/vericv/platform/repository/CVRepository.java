@@ -1,21 +1,55 @@
 package com.vericv.platform.repository;
 
 import com.vericv.platform.model.CV;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CVRepository extends JpaRepository<CV, Long> {
 
+    int EXPORT_FETCH_SIZE = 500;
+
     // Find CV by user ID
     Optional<CV> findByUserId(Long userId);
 
+    List<CV> findByUserIdIn(Collection<Long> userIds);
+
+    // Write paths lock the CV row before touching its entries, so concurrent edits of one CV
+    // (each ending in a rebuild of its document) run one after another
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM CV c WHERE c.id = :id")
+    Optional<CV> findByIdForUpdate(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM CV c WHERE c.userId = :userId")
+    Optional<CV> findByUserIdForUpdate(@Param("userId") Long userId);
+
     // Find all public CVs (for directory)
     List<CV> findByIsPublicTrue();
 
+    // Server-side cursor over public CVs in id order; consume inside a read-only transaction and close the stream
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    @Query("SELECT c FROM CV c WHERE c.isPublic = true ORDER BY c.id")
+    Stream<CV> streamPublic();
+
     // Check if user already has a CV
     boolean existsByUserId(Long userId);
+
+    // CV with its education and experience in one statement. Both collections are join fetched,
+    // so the result has education x experience rows; fine at CV sizes.
+    @Query("SELECT c FROM CV c LEFT JOIN FETCH c.education LEFT JOIN FETCH c.experience "
+            + "WHERE c.userId = (SELECT u.id FROM User u WHERE u.email = :email)")
+    Optional<CV> findAggregateByUserEmail(@Param("email") String email);
 }
\ No newline at end of file
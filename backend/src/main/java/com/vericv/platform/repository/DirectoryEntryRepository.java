@@ -1,16 +1,18 @@
 package com.vericv.platform.repository;
 
 import com.vericv.platform.model.DirectoryEntry;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface DirectoryEntryRepository extends JpaRepository<DirectoryEntry, Long> {
+public interface DirectoryEntryRepository extends JpaRepository<DirectoryEntry, Long>, DirectoryListingRepository {
 
     // Find directory entry by user ID
     Optional<DirectoryEntry> findByUserId(Long userId);
@@ -34,6 +36,55 @@ public interface DirectoryEntryRepository extends JpaRepository<DirectoryEntry,
             "LOWER(d.searchableText) LIKE LOWER(CONCAT('%', :keyword, '%')))")
     List<DirectoryEntry> searchDirectory(@Param("keyword") String keyword);
 
+    // Full-text search over the generated search_vector column (fts search mode only); ids in rank order
+    @Query(value = "SELECT d.id FROM directory_entries d " +
+            "WHERE d.is_visible = true AND d.search_vector @@ websearch_to_tsquery('simple', :keyword) " +
+            "ORDER BY ts_rank(d.search_vector, websearch_to_tsquery('simple', :keyword)) DESC, d.id " +
+            "LIMIT :limit", nativeQuery = true)
+    List<Long> searchDirectoryFullText(@Param("keyword") String keyword, @Param("limit") int limit);
+
+    // Typo-tolerant search; <% uses the pg_trgm GIN indexes and pg_trgm.word_similarity_threshold
+    @Query(value = "SELECT d.id FROM directory_entries d " +
+            "WHERE d.is_visible = true AND (:keyword <% d.full_name OR :keyword <% d.searchable_text) " +
+            "ORDER BY GREATEST(word_similarity(:keyword, d.full_name), " +
+            "word_similarity(:keyword, d.searchable_text)) DESC, d.id " +
+            "LIMIT :limit", nativeQuery = true)
+    List<Long> fuzzySearchDirectory(@Param("keyword") String keyword, @Param("limit") int limit);
+
+    // Walk visible entries in id order, one batch at a time (index rebuilds)
+    List<DirectoryEntry> findByIsVisibleTrueAndIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    // Facet source rows (id, badge, location) of visible entries, one id-ordered batch at a time
+    @Query("SELECT d.id, d.verificationBadge, d.location FROM DirectoryEntry d " +
+            "WHERE d.isVisible = true AND d.id > :after ORDER BY d.id")
+    List<Object[]> findVisibleFacetRows(@Param("after") long after, Pageable pageable);
+
+    // (entry id, company) for each current position held by the given entries' owners
+    @Query("SELECT d.id, x.company FROM DirectoryEntry d JOIN CV c ON c.userId = d.userId " +
+            "JOIN Experience x ON x.cvId = c.id WHERE d.id IN :ids AND x.isCurrent = true")
+    List<Object[]> findCurrentEmployers(@Param("ids") Collection<Long> ids);
+
+    // Autocomplete terms of visible members: (term, number of members using it + their profile views)
+    @Query("SELECT d.fullName, SUM(d.profileViews + 1) FROM DirectoryEntry d WHERE d.isVisible = true " +
+            "GROUP BY d.fullName")
+    List<Object[]> findNameSuggestionWeights();
+
+    @Query("SELECT x.company, SUM(d.profileViews + 1) FROM DirectoryEntry d JOIN CV c ON c.userId = d.userId " +
+            "JOIN Experience x ON x.cvId = c.id WHERE d.isVisible = true GROUP BY x.company")
+    List<Object[]> findCompanySuggestionWeights();
+
+    @Query("SELECT x.role, SUM(d.profileViews + 1) FROM DirectoryEntry d JOIN CV c ON c.userId = d.userId " +
+            "JOIN Experience x ON x.cvId = c.id WHERE d.isVisible = true GROUP BY x.role")
+    List<Object[]> findRoleSuggestionWeights();
+
+    @Query("SELECT e.institution, SUM(d.profileViews + 1) FROM DirectoryEntry d JOIN CV c ON c.userId = d.userId " +
+            "JOIN Education e ON e.cvId = c.id WHERE d.isVisible = true GROUP BY e.institution")
+    List<Object[]> findInstitutionSuggestionWeights();
+
+    @Query("SELECT e.degree, SUM(d.profileViews + 1) FROM DirectoryEntry d JOIN CV c ON c.userId = d.userId " +
+            "JOIN Education e ON e.cvId = c.id WHERE d.isVisible = true GROUP BY e.degree")
+    List<Object[]> findDegreeSuggestionWeights();
+
     // Check if user already has a directory entry
     boolean existsByUserId(Long userId);
 }
\ No newline at end of file
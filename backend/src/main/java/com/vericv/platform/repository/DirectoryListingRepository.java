@@ -0,0 +1,25 @@
+package com.vericv.platform.repository;
+
+import com.vericv.platform.dto.directory.DirectoryListing;
+import com.vericv.platform.model.DirectoryEntry;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+// Listing queries whose SELECT list is built from the requested fields (see DirectoryListing.parseFields).
+// Mixed into DirectoryEntryRepository; implemented with the Criteria API in DirectoryListingRepositoryImpl.
+public interface DirectoryListingRepository {
+
+    // Keyset page of visible entries in (profileViews DESC, id DESC) order, strictly after (views, id).
+    // badge and keyword (case-insensitive substring of name, headline or searchable text) are optional.
+    List<DirectoryListing> findListingPage(Set<String> fields, DirectoryEntry.VerificationBadge badge,
+            String keyword, int views, long id, int limit);
+
+    // Visible entries among ids, returned in the order of ids
+    List<DirectoryListing> findListingsInOrder(Set<String> fields, List<Long> ids);
+
+    // Server-side cursor over every visible entry (optionally one badge) in listing order;
+    // consume inside a read-only transaction and close the stream
+    Stream<DirectoryListing> streamListings(Set<String> fields, DirectoryEntry.VerificationBadge badge);
+}
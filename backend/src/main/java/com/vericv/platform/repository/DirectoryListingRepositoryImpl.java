@@ -0,0 +1,121 @@
+package com.vericv.platform.repository;
+
+import com.vericv.platform.dto.directory.DirectoryListing;
+import com.vericv.platform.model.DirectoryEntry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public class DirectoryListingRepositoryImpl implements DirectoryListingRepository {
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<DirectoryListing> findListingPage(Set<String> fields, DirectoryEntry.VerificationBadge badge,
+            String keyword, int views, long id, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<DirectoryEntry> d = query.from(DirectoryEntry.class);
+
+        List<Predicate> where = visible(cb, d, badge);
+        if (keyword != null) {
+            String pattern = "%" + keyword.toLowerCase(Locale.ROOT) + "%";
+            where.add(cb.or(
+                    cb.like(cb.lower(d.get("fullName")), pattern),
+                    cb.like(cb.lower(d.get("headline")), pattern),
+                    cb.like(cb.lower(d.get("searchableText")), pattern)));
+        }
+        // Leading <= gives the index scan a start position; the OR settles ties on id
+        where.add(cb.le(d.get("profileViews"), views));
+        where.add(cb.or(cb.lt(d.get("profileViews"), views), cb.lt(d.get("id"), id)));
+
+        query.multiselect(select(d, fields))
+                .where(where.toArray(new Predicate[0]))
+                .orderBy(cb.desc(d.get("profileViews")), cb.desc(d.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultStream()
+                .map(tuple -> DirectoryListing.fromTuple(tuple, fields))
+                .toList();
+    }
+
+    @Override
+    public List<DirectoryListing> findListingsInOrder(Set<String> fields, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<DirectoryEntry> d = query.from(DirectoryEntry.class);
+
+        List<Predicate> where = visible(cb, d, null);
+        where.add(d.get("id").in(ids));
+        query.multiselect(select(d, fields)).where(where.toArray(new Predicate[0]));
+
+        Map<Long, DirectoryListing> byId = new HashMap<>();
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            DirectoryListing listing = DirectoryListing.fromTuple(tuple, fields);
+            byId.put(listing.getId(), listing);
+        }
+
+        List<DirectoryListing> ordered = new ArrayList<>(byId.size());
+        for (Long id : ids) {
+            if (byId.containsKey(id)) {
+                ordered.add(byId.get(id));
+            }
+        }
+        return ordered;
+    }
+
+    @Override
+    public Stream<DirectoryListing> streamListings(Set<String> fields, DirectoryEntry.VerificationBadge badge) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<DirectoryEntry> d = query.from(DirectoryEntry.class);
+
+        query.multiselect(select(d, fields))
+                .where(visible(cb, d, badge).toArray(new Predicate[0]))
+                .orderBy(cb.desc(d.get("profileViews")), cb.desc(d.get("id")));
+
+        // Tuples are not managed entities, so the persistence context does not grow while streaming
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .getResultStream()
+                .map(tuple -> DirectoryListing.fromTuple(tuple, fields));
+    }
+
+    private List<Predicate> visible(CriteriaBuilder cb, Root<DirectoryEntry> d, DirectoryEntry.VerificationBadge badge) {
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.isTrue(d.get("isVisible")));
+        if (badge != null) {
+            where.add(cb.equal(d.get("verificationBadge"), badge));
+        }
+        return where;
+    }
+
+    private List<Selection<?>> select(Root<DirectoryEntry> d, Set<String> fields) {
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String field : fields) {
+            selections.add(d.get(field).alias(field));
+        }
+        return selections;
+    }
+}
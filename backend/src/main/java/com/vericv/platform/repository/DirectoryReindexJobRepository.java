@@ -0,0 +1,13 @@
+package com.vericv.platform.repository;
+
+import com.vericv.platform.model.DirectoryReindexJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface DirectoryReindexJobRepository extends JpaRepository<DirectoryReindexJob, Long> {
+
+    Optional<DirectoryReindexJob> findFirstByOrderByIdDesc();
+}
@@ -1,10 +1,15 @@
 package com.vericv.platform.repository;
 
 import com.vericv.platform.model.Education;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface EducationRepository extends JpaRepository<Education, Long> {
@@ -12,6 +17,11 @@ public interface EducationRepository extends JpaRepository<Education, Long> {
     // Find all education entries for a CV
     List<Education> findByCvId(Long cvId);
 
+    // Entries of every public CV ordered by (cvId, id), to merge with CVRepository.streamPublic
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + CVRepository.EXPORT_FETCH_SIZE))
+    @Query("SELECT e FROM Education e JOIN e.cv c WHERE c.isPublic = true ORDER BY e.cvId, e.id")
+    Stream<Education> streamOfPublicCVs();
+
     // Find all verified education entries for a CV
     List<Education> findByCvIdAndIsVerifiedTrue(Long cvId);
 }
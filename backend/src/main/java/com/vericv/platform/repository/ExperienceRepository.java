@@ -1,10 +1,15 @@
 package com.vericv.platform.repository;
 
 import com.vericv.platform.model.Experience;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ExperienceRepository extends JpaRepository<Experience, Long> {
@@ -12,6 +17,11 @@ public interface ExperienceRepository extends JpaRepository<Experience, Long> {
     // Find all experience entries for a CV
     List<Experience> findByCvId(Long cvId);
 
+    // Entries of every public CV ordered by (cvId, id), to merge with CVRepository.streamPublic
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + CVRepository.EXPORT_FETCH_SIZE))
+    @Query("SELECT x FROM Experience x JOIN x.cv c WHERE c.isPublic = true ORDER BY x.cvId, x.id")
+    Stream<Experience> streamOfPublicCVs();
+
     // Find all verified experience entries for a CV
     List<Experience> findByCvIdAndIsVerifiedTrue(Long cvId);
 
@@ -0,0 +1,39 @@
+package com.vericv.platform.repository;
+
+import com.vericv.platform.model.ProfileViewBucket;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ProfileViewBucketRepository extends JpaRepository<ProfileViewBucket, Long> {
+
+    // Locked so concurrent flushes (e.g. several instances) merge sketches instead of overwriting them
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<ProfileViewBucket> findByEntryIdAndGranularityAndBucketStart(Long entryId,
+            ProfileViewBucket.Granularity granularity, LocalDateTime bucketStart);
+
+    // Buckets of one entry in [from, to), oldest first
+    @Query("SELECT b FROM ProfileViewBucket b WHERE b.entryId = :entryId AND b.granularity = :granularity " +
+            "AND b.bucketStart >= :from AND b.bucketStart < :to ORDER BY b.bucketStart")
+    List<ProfileViewBucket> findRange(@Param("entryId") Long entryId,
+            @Param("granularity") ProfileViewBucket.Granularity granularity,
+            @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM ProfileViewBucket b WHERE b.granularity = :granularity AND b.bucketStart < :before")
+    int deleteOlderThan(@Param("granularity") ProfileViewBucket.Granularity granularity,
+            @Param("before") LocalDateTime before);
+
+    @Modifying
+    @Query("DELETE FROM ProfileViewBucket b WHERE b.entryId = :entryId")
+    void deleteByEntryId(@Param("entryId") Long entryId);
+}
@@ -0,0 +1,401 @@
+package com.vericv.platform.search;
+
+import com.vericv.platform.dto.directory.DirectoryCursor;
+import com.vericv.platform.dto.directory.DirectoryListing;
+import com.vericv.platform.dto.directory.DirectoryPage;
+import com.vericv.platform.dto.directory.FacetedPage;
+import com.vericv.platform.event.DirectoryEntryChangedEvent;
+import com.vericv.platform.model.DirectoryEntry;
+import com.vericv.platform.repository.DirectoryEntryRepository;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory facet index over visible directory entries: one Roaring bitmap of entry ids per
+// badge, normalized location and current employer. Combined filters are bitmap intersections
+// and facet counts are intersection cardinalities, so neither touches the database.
+// Each dimension also keeps its values ranked by entry count. A value's count under any filter is
+// at most that, so the top values are found by walking the ranking and stopping as soon as no
+// later value can make the top, not by counting every distinct value.
+@Component
+public class DirectoryFacetIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(DirectoryFacetIndex.class);
+
+    public static final String BADGE = "badge";
+    public static final String LOCATION = "location";
+    public static final String EMPLOYER = "employer";
+    private static final List<String> DIMENSIONS = List.of(BADGE, LOCATION, EMPLOYER);
+
+    // Most entries first, then by normalized value
+    private static final Comparator<ValueCount> RANK =
+            Comparator.comparingInt(ValueCount::count).reversed().thenComparing(ValueCount::key);
+
+    private final DirectoryEntryRepository directoryEntryRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int topValues;
+    private final int buildBatchSize;
+
+    // Guarded by lock; replaced wholesale when a build finishes
+    private Snapshot snapshot = new Snapshot();
+    private boolean building;
+    private final Map<Long, DirectoryEntryChangedEvent> changedDuringBuild = new HashMap<>();
+
+    // Set once the first build has finished; until then the index is empty
+    private volatile boolean ready;
+
+    public DirectoryFacetIndex(DirectoryEntryRepository directoryEntryRepository,
+            @Value("${vericv.directory.facets.top-values:10}") int topValues,
+            @Value("${vericv.directory.facets.build-batch-size:1000}") int buildBatchSize) {
+        this.directoryEntryRepository = directoryEntryRepository;
+        this.topValues = topValues;
+        this.buildBatchSize = buildBatchSize;
+    }
+
+    // ===== Query =====
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // filters: dimension -> raw value; missing or blank values are ignored. Newest entries first.
+    public FacetedPage query(Map<String, String> filters, Set<String> fields, DirectoryCursor cursor, int limit) {
+        return search(filters, fields, cursor, limit, true);
+    }
+
+    // The same page without facet counts
+    public DirectoryPage filter(Map<String, String> filters, Set<String> fields, DirectoryCursor cursor, int limit) {
+        FacetedPage page = search(filters, fields, cursor, limit, false);
+        return new DirectoryPage(page.getResults(), page.getNext());
+    }
+
+    private FacetedPage search(Map<String, String> filters, Set<String> fields, DirectoryCursor cursor, int limit,
+            boolean withFacets) {
+        List<Long> ids = new ArrayList<>(limit + 1);
+        int total;
+        Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+
+        lock.readLock().lock();
+        try {
+            Map<String, RoaringBitmap> selected = new HashMap<>();
+            for (String dimension : DIMENSIONS) {
+                String value = filters.get(dimension);
+                if (value != null && !value.isBlank()) {
+                    RoaringBitmap bitmap = snapshot.bitmaps.get(dimension).get(normalize(value));
+                    selected.put(dimension, bitmap != null ? bitmap : new RoaringBitmap());
+                }
+            }
+
+            RoaringBitmap matches = intersect(selected.values());
+            total = matches.getCardinality();
+
+            // Newest entries first: walk ids downwards from the cursor (bitmap values are unsigned, so stop at 0)
+            long start = Math.min(cursor.getId() - 1, Integer.MAX_VALUE);
+            long next = start < 0 ? -1 : matches.previousValue((int) start);
+            while (next >= 0 && ids.size() <= limit) {
+                ids.add(next);
+                next = next == 0 ? -1 : matches.previousValue((int) next - 1);
+            }
+
+            // Each facet is counted against the other facets' filters, so alternatives stay visible
+            for (String dimension : withFacets ? DIMENSIONS : List.<String>of()) {
+                List<RoaringBitmap> others = new ArrayList<>();
+                selected.forEach((name, bitmap) -> {
+                    if (!name.equals(dimension)) {
+                        others.add(bitmap);
+                    }
+                });
+                facets.put(dimension, countValues(dimension, others.isEmpty() ? null : intersect(others)));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        boolean hasMore = ids.size() > limit;
+        List<DirectoryListing> results = directoryEntryRepository.findListingsInOrder(fields,
+                hasMore ? ids.subList(0, limit) : ids);
+        String nextCursor = hasMore && !results.isEmpty()
+                ? DirectoryCursor.after(results.get(results.size() - 1)).encode()
+                : null;
+        return new FacetedPage(results, total, nextCursor, facets);
+    }
+
+    private RoaringBitmap intersect(Collection<RoaringBitmap> filters) {
+        RoaringBitmap result = snapshot.visible.clone();
+        for (RoaringBitmap filter : filters) {
+            result.and(filter);
+        }
+        return result;
+    }
+
+    // Top values of a dimension among the base entries (null: all visible entries)
+    private Map<String, Integer> countValues(String dimension, RoaringBitmap base) {
+        if (topValues <= 0) {
+            return Map.of();
+        }
+        // Worst of the current top at the head
+        PriorityQueue<ValueCount> top = new PriorityQueue<>(RANK.reversed());
+        for (ValueCount value : snapshot.ranked.get(dimension)) {
+            // value.count() bounds its count under the filter, and the ranking only goes down from here
+            if (top.size() == topValues && RANK.compare(value, top.peek()) > 0) {
+                break;
+            }
+            int count = base == null
+                    ? value.count()
+                    : RoaringBitmap.andCardinality(snapshot.bitmaps.get(dimension).get(value.key()), base);
+            if (count == 0) {
+                continue;
+            }
+            ValueCount counted = new ValueCount(value.key(), count);
+            if (top.size() < topValues) {
+                top.add(counted);
+            } else if (RANK.compare(counted, top.peek()) < 0) {
+                top.poll();
+                top.add(counted);
+            }
+        }
+
+        List<ValueCount> ordered = new ArrayList<>(top);
+        ordered.sort(RANK);
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (ValueCount value : ordered) {
+            counts.put(snapshot.labels.get(dimension).get(value.key()), value.count());
+        }
+        return counts;
+    }
+
+    // ===== Maintenance =====
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        lock.writeLock().lock();
+        try {
+            building = true;
+            changedDuringBuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long started = System.currentTimeMillis();
+        Snapshot fresh = new Snapshot();
+        try {
+            long lastId = 0;
+            List<Object[]> rows;
+            do {
+                rows = directoryEntryRepository.findVisibleFacetRows(lastId, PageRequest.ofSize(buildBatchSize));
+                Map<Long, EntryFacets> batch = new HashMap<>();
+                for (Object[] row : rows) {
+                    Long id = (Long) row[0];
+                    batch.put(id, new EntryFacets((DirectoryEntry.VerificationBadge) row[1], (String) row[2]));
+                    lastId = id;
+                }
+                addEmployers(batch);
+                batch.forEach(fresh::add);
+            } while (rows.size() == buildBatchSize);
+        } catch (RuntimeException e) {
+            log.error("Directory facet index build failed", e);
+            lock.writeLock().lock();
+            building = false;
+            lock.writeLock().unlock();
+            return;
+        }
+
+        // Changes committed while the build was reading may be missing from it; re-apply them
+        List<DirectoryEntryChangedEvent> replay;
+        lock.writeLock().lock();
+        try {
+            replay = new ArrayList<>(changedDuringBuild.values());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Map<Long, EntryFacets> replayFacets = facetsFor(replay);
+
+        lock.writeLock().lock();
+        try {
+            for (DirectoryEntryChangedEvent event : replay) {
+                fresh.remove(event.getEntry().getId());
+                EntryFacets facets = replayFacets.get(event.getEntry().getId());
+                if (facets != null) {
+                    fresh.add(event.getEntry().getId(), facets);
+                }
+            }
+            fresh.visible.runOptimize();
+            snapshot = fresh;
+            building = false;
+            changedDuringBuild.clear();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Directory facet index built: {} entries in {} ms",
+                fresh.visible.getCardinality(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntryChanged(DirectoryEntryChangedEvent event) {
+        Long id = event.getEntry().getId();
+        Map<Long, EntryFacets> facets = facetsFor(List.of(event));
+
+        lock.writeLock().lock();
+        try {
+            snapshot.remove(id);
+            if (facets.containsKey(id)) {
+                snapshot.add(id, facets.get(id));
+            }
+            if (building) {
+                changedDuringBuild.put(id, event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Facet values for the still-visible entries among the events (removed or hidden ones are absent)
+    private Map<Long, EntryFacets> facetsFor(List<DirectoryEntryChangedEvent> events) {
+        Map<Long, EntryFacets> facets = new HashMap<>();
+        for (DirectoryEntryChangedEvent event : events) {
+            DirectoryEntry entry = event.getEntry();
+            if (!event.isRemoved() && Boolean.TRUE.equals(entry.getIsVisible())) {
+                facets.put(entry.getId(), new EntryFacets(entry.getVerificationBadge(), entry.getLocation()));
+            }
+        }
+        addEmployers(facets);
+        return facets;
+    }
+
+    private void addEmployers(Map<Long, EntryFacets> facets) {
+        if (facets.isEmpty()) {
+            return;
+        }
+        for (Object[] row : directoryEntryRepository.findCurrentEmployers(facets.keySet())) {
+            facets.get((Long) row[0]).employers.add((String) row[1]);
+        }
+    }
+
+    static String normalize(String value) {
+        return value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    // ===== Internal State =====
+
+    private static class EntryFacets {
+        final DirectoryEntry.VerificationBadge badge;
+        final String location;
+        final List<String> employers = new ArrayList<>();
+
+        EntryFacets(DirectoryEntry.VerificationBadge badge, String location) {
+            this.badge = badge;
+            this.location = location;
+        }
+    }
+
+    private record ValueCount(String key, int count) {
+    }
+
+    private static class Snapshot {
+        final RoaringBitmap visible = new RoaringBitmap();
+
+        // dimension -> normalized value -> entry ids
+        final Map<String, Map<String, RoaringBitmap>> bitmaps = new HashMap<>();
+
+        // dimension -> normalized value -> first label seen, for display
+        final Map<String, Map<String, String>> labels = new HashMap<>();
+
+        // dimension -> values by entry count, kept in step with the bitmaps
+        final Map<String, TreeSet<ValueCount>> ranked = new HashMap<>();
+
+        // entry id -> dimension -> normalized values, so an entry can be removed without a scan
+        final Map<Integer, Map<String, List<String>>> valuesByEntry = new HashMap<>();
+
+        Snapshot() {
+            for (String dimension : DIMENSIONS) {
+                bitmaps.put(dimension, new HashMap<>());
+                labels.put(dimension, new HashMap<>());
+                ranked.put(dimension, new TreeSet<>(RANK));
+            }
+        }
+
+        void add(Long entryId, EntryFacets facets) {
+            int id = Math.toIntExact(entryId);
+            visible.add(id);
+
+            Map<String, List<String>> values = new HashMap<>();
+            if (facets.badge != null) {
+                addValue(id, BADGE, facets.badge.name(), values);
+            }
+            if (facets.location != null) {
+                addValue(id, LOCATION, facets.location, values);
+            }
+            for (String employer : facets.employers) {
+                addValue(id, EMPLOYER, employer, values);
+            }
+            valuesByEntry.put(id, values);
+        }
+
+        private void addValue(int id, String dimension, String label, Map<String, List<String>> values) {
+            String key = normalize(label);
+            if (key.isEmpty()) {
+                return;
+            }
+            RoaringBitmap bitmap = bitmaps.get(dimension).computeIfAbsent(key, k -> new RoaringBitmap());
+            int before = bitmap.getCardinality();
+            if (!bitmap.checkedAdd(id)) {
+                return;
+            }
+            if (before > 0) {
+                ranked.get(dimension).remove(new ValueCount(key, before));
+            }
+            ranked.get(dimension).add(new ValueCount(key, before + 1));
+            labels.get(dimension).putIfAbsent(key, label.trim());
+            values.computeIfAbsent(dimension, d -> new ArrayList<>()).add(key);
+        }
+
+        void remove(Long entryId) {
+            int id = Math.toIntExact(entryId);
+            visible.remove(id);
+
+            Map<String, List<String>> values = valuesByEntry.remove(id);
+            if (values == null) {
+                return;
+            }
+            values.forEach((dimension, keys) -> {
+                for (String key : keys) {
+                    RoaringBitmap bitmap = bitmaps.get(dimension).get(key);
+                    if (bitmap == null) {
+                        continue;
+                    }
+                    int before = bitmap.getCardinality();
+                    if (!bitmap.checkedRemove(id)) {
+                        continue;
+                    }
+                    ranked.get(dimension).remove(new ValueCount(key, before));
+                    if (bitmap.isEmpty()) {
+                        bitmaps.get(dimension).remove(key);
+                        labels.get(dimension).remove(key);
+                    } else {
+                        ranked.get(dimension).add(new ValueCount(key, before - 1));
+                    }
+                }
+            });
+        }
+    }
+}
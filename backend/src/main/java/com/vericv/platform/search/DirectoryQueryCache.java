@@ -0,0 +1,185 @@
+package com.vericv.platform.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.vericv.platform.dto.directory.DirectoryListing;
+import com.vericv.platform.dto.directory.DirectoryPage;
+import com.vericv.platform.event.DirectoryEntryChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Bounded cache of directory search pages, keyed by normalized keyword and page.
+// A committed directory entry change drops only the pages it can affect: pages listing the entry,
+// browse pages (no keyword) when it joins or leaves the visible set, and keyword pages whose keyword
+// could match its text before or after the change. That match check is deliberately loose (a shared
+// word prefix, or for fuzzy pages a shared trigram) so it never misses what an engine would match.
+// Profile view counts do not invalidate, so their ordering is at most ttl-seconds stale.
+@Component
+public class DirectoryQueryCache {
+
+    // Keyword words are looked for by this prefix, which also covers stemmed full-text matches
+    private static final int MATCH_PREFIX = 4;
+
+    private record Key(String keyword, boolean fuzzy, String fields, String cursor, int limit) {
+    }
+
+    private final Cache<Key, DirectoryPage> cache;
+
+    // Pages listing each entry, so a change to the entry drops exactly those
+    private final Map<Long, Set<Key>> keysByEntryId = new ConcurrentHashMap<>();
+
+    // Bumped by every invalidation; a page loaded across one is returned but not kept
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public DirectoryQueryCache(@Value("${vericv.directory.cache.max-entries:10000}") long maxEntries,
+            @Value("${vericv.directory.cache.ttl-seconds:60}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .executor(Runnable::run)
+                .removalListener((Key key, DirectoryPage page, RemovalCause cause) -> {
+                    if (key != null && page != null && cause != RemovalCause.REPLACED) {
+                        unindex(key, page);
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    public DirectoryPage get(String keyword, boolean fuzzy, Set<String> fields, String cursor, int limit,
+            Supplier<DirectoryPage> loader) {
+        Key key = new Key(normalize(keyword), fuzzy, String.join(",", fields), cursor, limit);
+        DirectoryPage page = cache.getIfPresent(key);
+        if (page != null) {
+            return page;
+        }
+
+        long seen = invalidations.get();
+        page = loader.get();
+        cache.put(key, page);
+        for (DirectoryListing listing : page.getResults()) {
+            keysByEntryId.computeIfAbsent(listing.getId(), id -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+        if (invalidations.get() != seen) {
+            cache.invalidate(key);
+        }
+        return page;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntryChanged(DirectoryEntryChangedEvent event) {
+        invalidations.incrementAndGet();
+        Set<Key> listing = keysByEntryId.remove(event.getEntry().getId());
+        if (listing != null) {
+            cache.invalidateAll(listing);
+        }
+
+        MatchText before = MatchText.of(event.getBefore());
+        MatchText after = MatchText.of(event.getAfter());
+        boolean joinedOrLeft = (before != null) != (after != null);
+        if (!joinedOrLeft && (before == null || before.text().equals(after.text()))) {
+            // Hidden throughout, or no change a search could see beyond the pages already dropped
+            return;
+        }
+        cache.asMap().keySet().removeIf(key -> key.keyword().isEmpty()
+                ? joinedOrLeft
+                : mayMatch(key, before) || mayMatch(key, after));
+    }
+
+    // For bulk changes made outside the entity events (e.g. the bulk reindex job)
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        cache.invalidateAll();
+        keysByEntryId.clear();
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+
+    private void unindex(Key key, DirectoryPage page) {
+        for (DirectoryListing listing : page.getResults()) {
+            keysByEntryId.computeIfPresent(listing.getId(), (id, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    // All search engines match case-insensitively, so case and spacing need not split the cache
+    private static String normalize(String keyword) {
+        if (keyword == null) {
+            return "";
+        }
+        return keyword.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    // ===== Match check =====
+
+    // Text of a visible entry with its pg_trgm-style trigrams; null for an entry searches cannot see
+    private record MatchText(String text, Set<String> trigrams) {
+
+        static MatchText of(DirectoryEntryChangedEvent.Snapshot snapshot) {
+            if (snapshot == null || !snapshot.visible()) {
+                return null;
+            }
+            return new MatchText(snapshot.text(), trigramsOf(snapshot.text()));
+        }
+    }
+
+    // Substring (like) and word or stem (lucene, fts) matches all contain a keyword word's prefix;
+    // a fuzzy match shares at least one trigram. Fuzzy pages take either, as fuzzy search can fall back.
+    private static boolean mayMatch(Key key, MatchText entry) {
+        if (entry == null) {
+            return false;
+        }
+        for (String word : key.keyword().split(" ")) {
+            if (entry.text().contains(word.substring(0, Math.min(word.length(), MATCH_PREFIX)))) {
+                return true;
+            }
+        }
+        if (key.fuzzy()) {
+            for (String trigram : trigramsOf(key.keyword())) {
+                if (entry.trigrams().contains(trigram)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Like pg_trgm: each alphanumeric word padded with two spaces in front and one behind
+    private static Set<String> trigramsOf(String text) {
+        Set<String> trigrams = new HashSet<>();
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+}
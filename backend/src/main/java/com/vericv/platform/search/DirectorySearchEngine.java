@@ -0,0 +1,25 @@
+package com.vericv.platform.search;
+
+import com.vericv.platform.dto.directory.DirectoryCursor;
+import com.vericv.platform.dto.directory.DirectoryPage;
+
+import java.util.Set;
+
+// Backend used by DirectoryService.searchDirectory for non-empty keywords.
+// Selected with vericv.directory.search.mode (like | lucene | fts).
+public interface DirectorySearchEngine {
+
+    // One page of visible entries matching the keyword, best match first, with only the given listing fields
+    DirectoryPage search(String keyword, Set<String> fields, DirectoryCursor cursor, int limit);
+
+    // False for engines that search directory_entries directly and keep no index of their own
+    default boolean supportsRebuild() {
+        return false;
+    }
+
+    // Rebuild the engine's index from the database; returns false if a rebuild is already running.
+    // Only called when supportsRebuild() is true.
+    default boolean rebuild() {
+        return false;
+    }
+}
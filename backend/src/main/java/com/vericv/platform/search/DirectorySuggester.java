@@ -0,0 +1,67 @@
+package com.vericv.platform.search;
+
+import com.vericv.platform.repository.DirectoryEntryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Serves /api/directory/suggest from an in-memory SuggestionIndex of names, companies, roles,
+// institutions and degrees of visible directory members. Each term is weighted by how many
+// members use it plus their profile views. The index is rebuilt periodically and swapped atomically.
+@Component
+public class DirectorySuggester {
+
+    private static final Logger log = LoggerFactory.getLogger(DirectorySuggester.class);
+
+    private final DirectoryEntryRepository directoryEntryRepository;
+    private final int maxResults;
+    private final int scanLimit;
+
+    private volatile SuggestionIndex index = SuggestionIndex.EMPTY;
+
+    public DirectorySuggester(DirectoryEntryRepository directoryEntryRepository,
+            @Value("${vericv.directory.suggest.max-results:10}") int maxResults,
+            @Value("${vericv.directory.suggest.scan-limit:256}") int scanLimit) {
+        this.directoryEntryRepository = directoryEntryRepository;
+        this.maxResults = maxResults;
+        this.scanLimit = scanLimit;
+    }
+
+    public List<SuggestionIndex.Term> suggest(String prefix, int limit) {
+        return index.lookup(prefix, Math.max(1, Math.min(limit, maxResults)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${vericv.directory.suggest.rebuild-interval-ms:300000}",
+            initialDelayString = "${vericv.directory.suggest.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        try {
+            List<SuggestionIndex.Term> terms = new ArrayList<>();
+            addTerms(terms, "name", directoryEntryRepository.findNameSuggestionWeights());
+            addTerms(terms, "company", directoryEntryRepository.findCompanySuggestionWeights());
+            addTerms(terms, "role", directoryEntryRepository.findRoleSuggestionWeights());
+            addTerms(terms, "institution", directoryEntryRepository.findInstitutionSuggestionWeights());
+            addTerms(terms, "degree", directoryEntryRepository.findDegreeSuggestionWeights());
+
+            index = SuggestionIndex.build(terms, maxResults, scanLimit);
+            log.info("Directory suggestions rebuilt: {} terms in {} ms",
+                    index.size(), System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            log.error("Directory suggestion rebuild failed", e);
+        }
+    }
+
+    private void addTerms(List<SuggestionIndex.Term> terms, String type, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            terms.add(new SuggestionIndex.Term((String) row[0], type, ((Number) row[1]).longValue()));
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.vericv.platform.search;
+
+import com.vericv.platform.dto.directory.DirectoryCursor;
+import com.vericv.platform.dto.directory.DirectoryPage;
+import com.vericv.platform.repository.DirectoryEntryRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+// Default mode: case-insensitive substring match straight against directory_entries
+@Component
+@ConditionalOnProperty(name = "vericv.directory.search.mode", havingValue = "like", matchIfMissing = true)
+public class LikeDirectorySearchEngine implements DirectorySearchEngine {
+
+    private final DirectoryEntryRepository directoryEntryRepository;
+
+    public LikeDirectorySearchEngine(DirectoryEntryRepository directoryEntryRepository) {
+        this.directoryEntryRepository = directoryEntryRepository;
+    }
+
+    @Override
+    public DirectoryPage search(String keyword, Set<String> fields, DirectoryCursor cursor, int limit) {
+        return DirectoryPage.fromKeyset(directoryEntryRepository.findListingPage(fields, null, keyword,
+                cursor.getProfileViews(), cursor.getId(), limit + 1), limit);
+    }
+}
@@ -0,0 +1,326 @@
+package com.vericv.platform.search;
+
+import com.vericv.platform.dto.directory.DirectoryCursor;
+import com.vericv.platform.dto.directory.DirectoryListing;
+import com.vericv.platform.dto.directory.DirectoryPage;
+import com.vericv.platform.event.DirectoryEntryChangedEvent;
+import com.vericv.platform.model.DirectoryEntry;
+import com.vericv.platform.repository.DirectoryEntryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// In-process Lucene index of visible directory entries (BM25 ranking is Lucene's default).
+// Kept current from DirectoryEntryChangedEvent with a near-real-time reopen after every change.
+@Component
+@ConditionalOnProperty(name = "vericv.directory.search.mode", havingValue = "lucene")
+public class LuceneDirectoryIndex implements DirectorySearchEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(LuceneDirectoryIndex.class);
+
+    private static final String USER_ID = "userId";
+    private static final String ENTRY_ID = "entryId";
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(
+            "fullName", 3.0f,
+            "headline", 2.0f,
+            "location", 1.0f,
+            "searchableText", 1.0f);
+
+    private final DirectoryEntryRepository directoryEntryRepository;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "directory-index-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // While a rebuild runs, readers keep the last refreshed snapshot and changed users are replayed at the end
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+    private final Set<Long> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    @Value("${vericv.directory.search.lucene.path:${java.io.tmpdir}/vericv-directory-index}")
+    private String indexPath;
+
+    @Value("${vericv.directory.search.max-results:100}")
+    private int maxResults;
+
+    @Value("${vericv.directory.search.lucene.rebuild-batch-size:1000}")
+    private int rebuildBatchSize;
+
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    public LuceneDirectoryIndex(DirectoryEntryRepository directoryEntryRepository) {
+        this.directoryEntryRepository = directoryEntryRepository;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        IndexWriterConfig config = new IndexWriterConfig(analyzer);
+        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        writer = new IndexWriter(FSDirectory.open(Path.of(indexPath)), config);
+        searcherManager = new SearcherManager(writer, new SearcherFactory());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIfEmpty() {
+        if (writer.getDocStats().numDocs == 0) {
+            rebuild();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        rebuildExecutor.shutdownNow();
+        searcherManager.close();
+        writer.close();
+    }
+
+    // ===== Search =====
+
+    @Override
+    public DirectoryPage search(String keyword, Set<String> fields, DirectoryCursor cursor, int limit) {
+        return DirectoryPage.fromRanked(rank(keyword), cursor, limit,
+                ids -> directoryEntryRepository.findListingsInOrder(fields, ids));
+    }
+
+    // Entry ids, best match first
+    private List<Long> rank(String keyword) {
+        Query query = buildQuery(keyword);
+        if (query == null) {
+            return List.of();
+        }
+
+        List<Long> entryIds = new ArrayList<>();
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                // First build still running: the snapshot is empty, so answer from the database
+                if (rebuilding.get() && searcher.getIndexReader().numDocs() == 0) {
+                    return directoryEntryRepository.findListingPage(Set.copyOf(DirectoryListing.KEY_FIELDS), null,
+                            keyword, Integer.MAX_VALUE, Long.MAX_VALUE, maxResults).stream()
+                            .map(DirectoryListing::getId)
+                            .toList();
+                }
+
+                TopDocs topDocs = searcher.search(query, maxResults);
+                StoredFields storedFields = searcher.storedFields();
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    Document doc = storedFields.document(scoreDoc.doc);
+                    entryIds.add(doc.getField(ENTRY_ID).numericValue().longValue());
+                }
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Directory search failed", e);
+        }
+
+        return entryIds;
+    }
+
+    // Every keyword token must match in some field; the last token also matches as a prefix (search-as-you-type)
+    private Query buildQuery(String keyword) {
+        List<String> tokens = analyze(keyword);
+        if (tokens.isEmpty()) {
+            return null;
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            boolean last = i == tokens.size() - 1;
+
+            BooleanQuery.Builder anyField = new BooleanQuery.Builder();
+            for (Map.Entry<String, Float> field : FIELD_BOOSTS.entrySet()) {
+                Term term = new Term(field.getKey(), token);
+                anyField.add(new BoostQuery(new TermQuery(term), field.getValue()), BooleanClause.Occur.SHOULD);
+                if (last) {
+                    anyField.add(new BoostQuery(new PrefixQuery(term), field.getValue() / 2),
+                            BooleanClause.Occur.SHOULD);
+                }
+            }
+            query.add(anyField.build(), BooleanClause.Occur.MUST);
+        }
+        return query.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> tokens = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream("fullName", text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                tokens.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return tokens;
+    }
+
+    // ===== Index Maintenance =====
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntryChanged(DirectoryEntryChangedEvent event) {
+        try {
+            if (event.isRemoved()) {
+                writer.deleteDocuments(new Term(USER_ID, event.getUserId().toString()));
+            } else {
+                apply(event.getEntry());
+            }
+
+            if (rebuilding.get()) {
+                changedDuringRebuild.add(event.getUserId());
+            } else {
+                searcherManager.maybeRefreshBlocking();
+            }
+        } catch (IOException e) {
+            log.error("Failed to update directory index for user {}", event.getUserId(), e);
+        }
+    }
+
+    @Override
+    public boolean supportsRebuild() {
+        return true;
+    }
+
+    // Full rebuild in the background; searches keep using the previous snapshot until it completes
+    @Override
+    public boolean rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        rebuildExecutor.submit(this::runRebuild);
+        return true;
+    }
+
+    private void runRebuild() {
+        long started = System.currentTimeMillis();
+        long indexed = 0;
+        try {
+            writer.deleteAll();
+
+            long lastId = 0;
+            List<DirectoryEntry> batch;
+            do {
+                batch = directoryEntryRepository.findByIsVisibleTrueAndIdGreaterThanOrderByIdAsc(
+                        lastId, PageRequest.ofSize(rebuildBatchSize));
+                for (DirectoryEntry entry : batch) {
+                    apply(entry);
+                    lastId = entry.getId();
+                }
+                indexed += batch.size();
+            } while (batch.size() == rebuildBatchSize);
+
+            // A batch may have read a row just before a concurrent change was indexed; re-read those users
+            for (Long userId : List.copyOf(changedDuringRebuild)) {
+                DirectoryEntry entry = directoryEntryRepository.findByUserId(userId).orElse(null);
+                if (entry == null) {
+                    writer.deleteDocuments(new Term(USER_ID, userId.toString()));
+                } else {
+                    apply(entry);
+                }
+            }
+
+            writer.commit();
+            log.info("Directory index rebuilt: {} entries in {} ms", indexed, System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.error("Directory index rebuild failed", e);
+        } finally {
+            rebuilding.set(false);
+            changedDuringRebuild.clear();
+            try {
+                searcherManager.maybeRefreshBlocking();
+            } catch (IOException e) {
+                log.error("Failed to refresh directory index after rebuild", e);
+            }
+        }
+    }
+
+    // Durable commits are batched; readers already see changes through the NRT reopen
+    @Scheduled(fixedDelayString = "${vericv.directory.search.lucene.commit-interval-ms:5000}")
+    public void commit() {
+        if (rebuilding.get() || !writer.hasUncommittedChanges()) {
+            return;
+        }
+        try {
+            writer.commit();
+        } catch (IOException e) {
+            log.error("Failed to commit directory index", e);
+        }
+    }
+
+    private void apply(DirectoryEntry entry) throws IOException {
+        Term key = new Term(USER_ID, entry.getUserId().toString());
+        if (!Boolean.TRUE.equals(entry.getIsVisible())) {
+            writer.deleteDocuments(key);
+            return;
+        }
+        writer.updateDocument(key, toDocument(entry));
+    }
+
+    private Document toDocument(DirectoryEntry entry) {
+        Document doc = new Document();
+        doc.add(new StringField(USER_ID, entry.getUserId().toString(), Field.Store.NO));
+        doc.add(new StoredField(ENTRY_ID, entry.getId()));
+        addText(doc, "fullName", entry.getFullName());
+        addText(doc, "headline", entry.getHeadline());
+        addText(doc, "location", entry.getLocation());
+        addText(doc, "searchableText", entry.getSearchableText());
+        return doc;
+    }
+
+    private void addText(Document doc, String field, String value) {
+        if (value != null && !value.isBlank()) {
+            doc.add(new TextField(field, value, Field.Store.NO));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.vericv.platform.search;
+
+import com.vericv.platform.dto.directory.DirectoryCursor;
+import com.vericv.platform.dto.directory.DirectoryPage;
+import com.vericv.platform.repository.DirectoryEntryRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+// Keeps search inside Postgres: a generated, weighted tsvector column on directory_entries behind a GIN index.
+// Hibernate's ddl-auto does not manage generated columns, so the column and index are created here on startup.
+@Component
+@ConditionalOnProperty(name = "vericv.directory.search.mode", havingValue = "fts")
+public class PostgresFullTextSearchEngine implements DirectorySearchEngine {
+
+    // 'simple' config: no stemming or stop words, so names and company names match as typed
+    private static final String SEARCH_VECTOR_DDL = "ALTER TABLE directory_entries ADD COLUMN IF NOT EXISTS search_vector tsvector " +
+            "GENERATED ALWAYS AS (" +
+            "setweight(to_tsvector('simple', coalesce(full_name, '')), 'A') || " +
+            "setweight(to_tsvector('simple', coalesce(headline, '')), 'B') || " +
+            "setweight(to_tsvector('simple', coalesce(location, '')), 'C') || " +
+            "setweight(to_tsvector('simple', coalesce(searchable_text, '')), 'D')) STORED";
+
+    private static final String SEARCH_INDEX_DDL = "CREATE INDEX IF NOT EXISTS idx_directory_entries_search_vector " +
+            "ON directory_entries USING GIN (search_vector)";
+
+    private final DirectoryEntryRepository directoryEntryRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${vericv.directory.search.max-results:100}")
+    private int maxResults;
+
+    public PostgresFullTextSearchEngine(DirectoryEntryRepository directoryEntryRepository,
+            JdbcTemplate jdbcTemplate) {
+        this.directoryEntryRepository = directoryEntryRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void createSearchColumn() {
+        jdbcTemplate.execute(SEARCH_VECTOR_DDL);
+        jdbcTemplate.execute(SEARCH_INDEX_DDL);
+    }
+
+    @Override
+    public DirectoryPage search(String keyword, Set<String> fields, DirectoryCursor cursor, int limit) {
+        return DirectoryPage.fromRanked(directoryEntryRepository.searchDirectoryFullText(keyword, maxResults),
+                cursor, limit, ids -> directoryEntryRepository.findListingsInOrder(fields, ids));
+    }
+}
@@ -0,0 +1,179 @@
+package com.vericv.platform.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Immutable prefix-completion index: a compact trie stored as its sorted leaf keys.
+// A prefix maps to a contiguous key range found by binary search. Small ranges are scanned;
+// for "heavy" trie nodes (ranges larger than scanLimit) the top completions are materialized
+// at build time, so every lookup costs O(log n) plus at most scanLimit comparisons.
+public class SuggestionIndex {
+
+    public static final SuggestionIndex EMPTY = build(List.of(), 1, 1);
+
+    // A completion candidate; the same label may be reachable from several keys (one per word)
+    public static class Term {
+        private final String label;
+        private final String type;
+        private final long weight;
+
+        public Term(String label, String type, long weight) {
+            this.label = label;
+            this.type = type;
+            this.weight = weight;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public long getWeight() {
+            return weight;
+        }
+    }
+
+    private final Term[] terms;
+    private final String[] keys;
+    private final int[] keyTerms;
+    private final Map<String, int[]> heavyTop;
+    private final int maxResults;
+    private final int scanLimit;
+
+    private SuggestionIndex(Term[] terms, String[] keys, int[] keyTerms, int maxResults, int scanLimit) {
+        this.terms = terms;
+        this.keys = keys;
+        this.keyTerms = keyTerms;
+        this.maxResults = maxResults;
+        this.scanLimit = scanLimit;
+        this.heavyTop = new HashMap<>();
+        materializeHeavy("", 0, keys.length);
+    }
+
+    // Terms are merged by (normalized label, type) with weights summed; each word start becomes a key
+    public static SuggestionIndex build(List<Term> input, int maxResults, int scanLimit) {
+        Map<String, Term> merged = new HashMap<>();
+        for (Term term : input) {
+            if (term.label == null || normalize(term.label).isEmpty()) {
+                continue;
+            }
+            String id = normalize(term.label) + "\u0000" + term.type;
+            merged.merge(id, term, (a, b) -> new Term(a.label, a.type, a.weight + b.weight));
+        }
+
+        Term[] terms = merged.values().toArray(new Term[0]);
+        List<String> keyList = new ArrayList<>();
+        List<Integer> termList = new ArrayList<>();
+        for (int i = 0; i < terms.length; i++) {
+            String normalized = normalize(terms[i].label);
+            for (int start = 0; start < normalized.length(); start++) {
+                if (start == 0 || normalized.charAt(start - 1) == ' ') {
+                    keyList.add(normalized.substring(start));
+                    termList.add(i);
+                }
+            }
+        }
+
+        Integer[] order = new Integer[keyList.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(keyList::get));
+
+        String[] keys = new String[order.length];
+        int[] keyTerms = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            keys[i] = keyList.get(order[i]);
+            keyTerms[i] = termList.get(order[i]);
+        }
+        return new SuggestionIndex(terms, keys, keyTerms, maxResults, scanLimit);
+    }
+
+    public List<Term> lookup(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+
+        int from = lowerBound(normalized);
+        int to = lowerBound(normalized + Character.MAX_VALUE);
+        int[] top = to - from > scanLimit ? heavyTop.get(normalized) : topTerms(from, to);
+
+        List<Term> results = new ArrayList<>();
+        for (int i = 0; top != null && i < top.length && i < limit; i++) {
+            results.add(terms[top[i]]);
+        }
+        return results;
+    }
+
+    public int size() {
+        return terms.length;
+    }
+
+    // ===== Build Helpers =====
+
+    // Walk the implicit trie below prefix (keys [from, to)) and materialize every node too big to scan
+    private void materializeHeavy(String prefix, int from, int to) {
+        int depth = prefix.length();
+        int start = from;
+        // Keys equal to the prefix sort first and have no child node
+        while (start < to && keys[start].length() == depth) {
+            start++;
+        }
+        while (start < to) {
+            char c = keys[start].charAt(depth);
+            int end = start;
+            while (end < to && keys[end].charAt(depth) == c) {
+                end++;
+            }
+            if (end - start > scanLimit) {
+                String child = prefix + c;
+                heavyTop.put(child, topTerms(start, end));
+                materializeHeavy(child, start, end);
+            }
+            start = end;
+        }
+    }
+
+    // Distinct terms of keys [from, to), heaviest first
+    private int[] topTerms(int from, int to) {
+        Set<Integer> distinct = new LinkedHashSet<>();
+        for (int i = from; i < to; i++) {
+            distinct.add(keyTerms[i]);
+        }
+        return distinct.stream()
+                .sorted(Comparator.comparingLong((Integer t) -> terms[t].weight).reversed()
+                        .thenComparing(t -> terms[t].label))
+                .limit(maxResults)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    static String normalize(String text) {
+        return text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,77 @@
+package com.vericv.platform.search;
+
+import com.vericv.platform.dto.directory.DirectoryCursor;
+import com.vericv.platform.dto.directory.DirectoryPage;
+import com.vericv.platform.repository.DirectoryEntryRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Set;
+
+// Typo-tolerant directory search using pg_trgm word similarity.
+// The GIN trigram indexes let Postgres narrow candidates by shared trigrams instead of scoring every row.
+@Component
+public class TrigramFuzzySearch {
+
+    private static final Logger log = LoggerFactory.getLogger(TrigramFuzzySearch.class);
+
+    private static final List<String> TRIGRAM_DDL = List.of(
+            "CREATE EXTENSION IF NOT EXISTS pg_trgm",
+            "CREATE INDEX IF NOT EXISTS idx_directory_entries_full_name_trgm " +
+                    "ON directory_entries USING GIN (full_name gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_directory_entries_searchable_text_trgm " +
+                    "ON directory_entries USING GIN (searchable_text gin_trgm_ops)");
+
+    private final DirectoryEntryRepository directoryEntryRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${vericv.directory.search.fuzzy.enabled:true}")
+    private boolean enabled;
+
+    // pg_trgm word similarity a match must reach (0..1, Postgres default is 0.6)
+    @Value("${vericv.directory.search.fuzzy.threshold:0.5}")
+    private double threshold;
+
+    @Value("${vericv.directory.search.max-results:100}")
+    private int maxResults;
+
+    private volatile boolean available;
+
+    public TrigramFuzzySearch(DirectoryEntryRepository directoryEntryRepository, JdbcTemplate jdbcTemplate) {
+        this.directoryEntryRepository = directoryEntryRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Creating the extension may need elevated privileges; without it fuzzy requests fall back to exact search
+    @PostConstruct
+    public void createTrigramIndexes() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            TRIGRAM_DDL.forEach(jdbcTemplate::execute);
+            available = true;
+        } catch (Exception e) {
+            log.warn("pg_trgm unavailable, fuzzy directory search disabled: {}", e.getMessage());
+        }
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    @Transactional(readOnly = true)
+    public DirectoryPage search(String keyword, Set<String> fields, DirectoryCursor cursor, int limit) {
+        // Transaction-local, so pooled connections keep the server default
+        jdbcTemplate.queryForObject("SELECT set_config('pg_trgm.word_similarity_threshold', ?, true)",
+                String.class, String.valueOf(threshold));
+        return DirectoryPage.fromRanked(directoryEntryRepository.fuzzySearchDirectory(keyword, maxResults),
+                cursor, limit, ids -> directoryEntryRepository.findListingsInOrder(fields, ids));
+    }
+}
@@ -0,0 +1,106 @@
+package com.vericv.platform.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.vericv.platform.model.CV;
+import com.vericv.platform.model.Education;
+import com.vericv.platform.model.Experience;
+import com.vericv.platform.repository.CVRepository;
+import com.vericv.platform.repository.EducationRepository;
+import com.vericv.platform.repository.ExperienceRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Hibernate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+// Exports every public CV with its education and experience as JSON Lines, in CV id order, each line
+// shaped like a public CV document. Three server-side cursors (CVs, education, experience), all ordered
+// by CV id, are read in step and merge-joined, so an export of any size is three queries and the heap
+// holds one fetch block per cursor. One repeatable-read transaction gives the cursors the same snapshot.
+@Component
+public class CVBulkExporter {
+
+    // The persistence context is emptied this often, so exported entities do not pile up in it
+    private static final int CLEAR_INTERVAL = CVRepository.EXPORT_FETCH_SIZE;
+
+    public record PublicCV(CV cv, List<Education> education, List<Experience> experience) {
+    }
+
+    private final CVRepository cvRepository;
+    private final EducationRepository educationRepository;
+    private final ExperienceRepository experienceRepository;
+    private final ObjectWriter writer;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public CVBulkExporter(CVRepository cvRepository, EducationRepository educationRepository,
+            ExperienceRepository experienceRepository, ObjectMapper objectMapper) {
+        this.cvRepository = cvRepository;
+        this.educationRepository = educationRepository;
+        this.experienceRepository = experienceRepository;
+        this.writer = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    // Writes one JSON document per line to out (not closed or flushed); returns the number of CVs
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public long exportPublic(OutputStream out) throws IOException {
+        long exported = 0;
+        try (Stream<CV> cvs = cvRepository.streamPublic();
+                Stream<Education> education = educationRepository.streamOfPublicCVs();
+                Stream<Experience> experience = experienceRepository.streamOfPublicCVs()) {
+            MergeCursor<Education> educationRows = new MergeCursor<>(education.iterator(), Education::getCvId);
+            MergeCursor<Experience> experienceRows = new MergeCursor<>(experience.iterator(), Experience::getCvId);
+
+            for (Iterator<CV> rows = cvs.iterator(); rows.hasNext(); ) {
+                // An entry read ahead of its CV leaves a lazy proxy in the session, which the CV row then reuses
+                CV cv = Hibernate.unproxy(rows.next(), CV.class);
+                writer.writeValue(out, new PublicCV(cv, educationRows.take(cv.getId()),
+                        experienceRows.take(cv.getId())));
+                out.write('\n');
+                if (++exported % CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return exported;
+    }
+
+    // Rows of a cursor ordered by CV id, handed out one CV at a time
+    private static final class MergeCursor<T> {
+        private final Iterator<T> rows;
+        private final Function<T, Long> cvIdOf;
+        private T next;
+
+        MergeCursor(Iterator<T> rows, Function<T, Long> cvIdOf) {
+            this.rows = rows;
+            this.cvIdOf = cvIdOf;
+            this.next = rows.hasNext() ? rows.next() : null;
+        }
+
+        List<T> take(Long cvId) {
+            List<T> matched = new ArrayList<>();
+            while (next != null && cvIdOf.apply(next) <= cvId) {
+                if (cvIdOf.apply(next).equals(cvId)) {
+                    matched.add(next);
+                }
+                next = rows.hasNext() ? rows.next() : null;
+            }
+            return matched;
+        }
+    }
+}
@@ -0,0 +1,469 @@
+package com.vericv.platform.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.vericv.platform.dto.cv.CVImportRecord;
+import com.vericv.platform.dto.cv.EducationDto;
+import com.vericv.platform.dto.cv.ExperienceDto;
+import com.vericv.platform.model.CV;
+import com.vericv.platform.model.Education;
+import com.vericv.platform.model.Experience;
+import com.vericv.platform.model.User;
+import com.vericv.platform.repository.CVRepository;
+import com.vericv.platform.repository.EducationRepository;
+import com.vericv.platform.repository.ExperienceRepository;
+import com.vericv.platform.repository.UserRepository;
+import com.vericv.platform.util.CsvReader;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// Loads partner files of new accounts with their CVs (JSON Lines or CSV, see CVImportRecord) as a
+// three-stage pipeline: one thread reads records into batches, a pool parses and validates batches
+// in parallel, and the calling thread stores them in order, one transaction per batch. At most
+// 2 x parallelism batches are in flight; when storing falls behind, reading blocks, so memory stays
+// bounded whatever the file size. Users, CVs, education and experience go in as JDBC batches with
+// pooled sequence ids (see IdSequences). Records that fail are written to the reject file with
+// their line number and reason instead of stopping the import.
+@Component
+public class CVBulkImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(CVBulkImporter.class);
+
+    // Imported accounts have no usable password: this is never a valid BCrypt hash
+    static final String NO_PASSWORD = "!imported";
+
+    private static final int MAX_RECORD_CHARS = 1_000_000;
+    private static final Pattern REJECT_FILE_NAME = Pattern.compile("cv-import-[0-9]+\\.rejects\\.jsonl");
+    private static final Future<Chunk> END = CompletableFuture.completedFuture(null);
+
+    public enum Format {
+        JSONL, CSV;
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown import format: " + value + ". Use jsonl or csv");
+            }
+        }
+    }
+
+    public record Result(long records, long imported, long rejected, long elapsedMillis, long recordsPerSecond) {
+    }
+
+    private final UserRepository userRepository;
+    private final CVRepository cvRepository;
+    private final EducationRepository educationRepository;
+    private final ExperienceRepository experienceRepository;
+    private final CVDocumentService cvDocumentService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${vericv.cv.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${vericv.cv.import.parallelism:4}")
+    private int parallelism;
+
+    @Value("${vericv.cv.import.reject-dir:${java.io.tmpdir}/vericv-import-rejects}")
+    private Path rejectDir;
+
+    public CVBulkImporter(UserRepository userRepository, CVRepository cvRepository,
+            EducationRepository educationRepository, ExperienceRepository experienceRepository,
+            CVDocumentService cvDocumentService, ObjectMapper objectMapper, Validator validator,
+            TransactionTemplate transactionTemplate) {
+        this.userRepository = userRepository;
+        this.cvRepository = cvRepository;
+        this.educationRepository = educationRepository;
+        this.experienceRepository = experienceRepository;
+        this.cvDocumentService = cvDocumentService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    // Imports an upload, keeping rejects in a file under reject-dir that rejectFile(name) finds again
+    public Map<String, Object> importUpload(InputStream in, Format format) throws IOException {
+        Files.createDirectories(rejectDir);
+        Path rejects = Files.createTempFile(rejectDir, "cv-import-", ".rejects.jsonl");
+        Result result;
+        try (Writer writer = Files.newBufferedWriter(rejects)) {
+            result = importRecords(in, format, writer);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(rejects);
+            throw e;
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("records", result.records());
+        response.put("imported", result.imported());
+        response.put("rejected", result.rejected());
+        response.put("elapsedMillis", result.elapsedMillis());
+        response.put("recordsPerSecond", result.recordsPerSecond());
+        if (result.rejected() > 0) {
+            response.put("rejectFile", rejects.getFileName().toString());
+        } else {
+            Files.deleteIfExists(rejects);
+        }
+        return response;
+    }
+
+    public Optional<Path> rejectFile(String name) {
+        if (!REJECT_FILE_NAME.matcher(name).matches()) {
+            return Optional.empty();
+        }
+        Path file = rejectDir.resolve(name);
+        return Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    // Streams records from in; each rejected record becomes one JSON line {"line", "error", "record"}
+    public Result importRecords(InputStream in, Format format, Writer rejects) throws IOException {
+        long startedAt = System.currentTimeMillis();
+        ObjectWriter rejectWriter = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        BlockingQueue<Future<Chunk>> inFlight = new ArrayBlockingQueue<>(2 * parallelism);
+        ExecutorService reader = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "cv-import-read"));
+        ExecutorService validators = Executors.newFixedThreadPool(parallelism,
+                runnable -> new Thread(runnable, "cv-import-validate"));
+
+        long records = 0;
+        long imported = 0;
+        long rejected = 0;
+        try {
+            Future<?> reading = reader.submit(() -> {
+                try {
+                    read(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)), format,
+                            validators, inFlight);
+                } finally {
+                    inFlight.put(END);
+                }
+                return null;
+            });
+
+            for (Future<Chunk> next = inFlight.take(); next != END; next = inFlight.take()) {
+                Chunk chunk = next.get();
+                List<Reject> chunkRejects = new ArrayList<>(chunk.rejects());
+                chunkRejects.addAll(store(chunk.valid()));
+                chunkRejects.sort(Comparator.comparingLong(Reject::line));
+                for (Reject reject : chunkRejects) {
+                    rejectWriter.writeValue(rejects, reject);
+                    rejects.write('\n');
+                }
+                records += chunk.size();
+                rejected += chunkRejects.size();
+                imported += chunk.size() - chunkRejects.size();
+            }
+            // Surfaces a read failure; everything read before it has been stored
+            reading.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("CV import interrupted after " + records + " records");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IllegalStateException("CV import failed after " + records + " records: "
+                    + e.getCause().getMessage(), e.getCause());
+        } finally {
+            reader.shutdownNow();
+            validators.shutdownNow();
+            rejects.flush();
+        }
+
+        long elapsed = Math.max(1, System.currentTimeMillis() - startedAt);
+        log.info("CV import finished: {} records, {} imported, {} rejected in {} ms", records, imported, rejected,
+                elapsed);
+        return new Result(records, imported, rejected, elapsed, records * 1000 / elapsed);
+    }
+
+    // ===== Reading and validation =====
+
+    private void read(BufferedReader in, Format format, ExecutorService validators,
+            BlockingQueue<Future<Chunk>> inFlight) throws IOException, InterruptedException {
+        CsvReader csv = null;
+        List<String> columns = null;
+        if (format == Format.CSV) {
+            csv = new CsvReader(in, MAX_RECORD_CHARS);
+            columns = csv.next();
+            if (columns == null) {
+                return;
+            }
+            columns = columns.stream().map(String::trim).toList();
+        }
+
+        List<Raw> batch = new ArrayList<>(batchSize);
+        long line = format == Format.CSV ? 1 : 0;
+        while (true) {
+            Raw raw;
+            if (csv != null) {
+                List<String> cells = csv.next();
+                raw = cells == null ? null : new Raw(csv.recordLine(), null, cells);
+            } else {
+                raw = readLine(in, ++line);
+            }
+            if (raw == null) {
+                break;
+            }
+            if (raw.text() != null && raw.text().isBlank()) {
+                continue;
+            }
+            batch.add(raw);
+            if (batch.size() == batchSize) {
+                submit(batch, columns, validators, inFlight);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            submit(batch, columns, validators, inFlight);
+        }
+    }
+
+    // Blocks while the queue of batches waiting to be stored is full
+    private void submit(List<Raw> batch, List<String> columns, ExecutorService validators,
+            BlockingQueue<Future<Chunk>> inFlight) throws InterruptedException {
+        inFlight.put(validators.submit(() -> validate(batch, columns)));
+    }
+
+    // One JSON Lines record; a line over the size limit is skipped and rejected rather than buffered
+    private Raw readLine(BufferedReader in, long line) throws IOException {
+        StringBuilder text = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1 && c != '\n') {
+            if (text.length() < MAX_RECORD_CHARS) {
+                text.append((char) c);
+            } else if (text.length() == MAX_RECORD_CHARS) {
+                text.append('…');
+            }
+        }
+        if (c == -1 && text.isEmpty()) {
+            return null;
+        }
+        return new Raw(line, text.toString(), null);
+    }
+
+    private Chunk validate(List<Raw> batch, List<String> columns) {
+        List<Parsed> valid = new ArrayList<>(batch.size());
+        List<Reject> rejects = new ArrayList<>();
+        for (Raw raw : batch) {
+            // What goes to the reject file: the line as text until it parses, or the row by column
+            JsonNode source = raw.text() != null ? TextNode.valueOf(raw.text()) : toObject(raw.cells(), columns);
+            try {
+                if (raw.text() != null && raw.text().length() > MAX_RECORD_CHARS) {
+                    throw new IllegalArgumentException("Record is longer than " + MAX_RECORD_CHARS + " characters");
+                }
+                if (raw.cells() != null && raw.cells().size() != columns.size()) {
+                    throw new IllegalArgumentException("Expected " + columns.size() + " columns, found "
+                            + raw.cells().size());
+                }
+                JsonNode tree = raw.text() != null ? objectMapper.readTree(raw.text()) : withNestedArrays(source);
+                if (!tree.isObject()) {
+                    throw new IllegalArgumentException("Record must be a JSON object");
+                }
+                if (raw.text() != null) {
+                    source = tree;
+                }
+                CVImportRecord record = objectMapper.treeToValue(tree, CVImportRecord.class);
+                String violations = validator.validate(record).stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; "));
+                if (!violations.isEmpty()) {
+                    throw new IllegalArgumentException(violations);
+                }
+                valid.add(new Parsed(raw.line(), source, record));
+            } catch (JsonProcessingException e) {
+                rejects.add(new Reject(raw.line(), "Invalid record: " + e.getOriginalMessage(), source));
+            } catch (IllegalArgumentException e) {
+                rejects.add(new Reject(raw.line(), e.getMessage(), source));
+            }
+        }
+        return new Chunk(batch.size(), valid, rejects);
+    }
+
+    // A CSV row by column name; empty cells are left out
+    private ObjectNode toObject(List<String> cells, List<String> columns) {
+        ObjectNode row = objectMapper.createObjectNode();
+        for (int i = 0; i < cells.size(); i++) {
+            if (!cells.get(i).isEmpty()) {
+                row.put(i < columns.size() ? columns.get(i) : "column" + (i + 1), cells.get(i));
+            }
+        }
+        return row;
+    }
+
+    // The row as a JSON record: education and experience cells hold JSON arrays
+    private JsonNode withNestedArrays(JsonNode row) throws JsonProcessingException {
+        ObjectNode record = ((ObjectNode) row).deepCopy();
+        for (String column : List.of("education", "experience")) {
+            if (record.hasNonNull(column)) {
+                record.set(column, objectMapper.readTree(record.get(column).asText()));
+            }
+        }
+        return record;
+    }
+
+    // ===== Storing =====
+
+    // One transaction for the batch; if it fails, each record is retried alone so only the bad ones are rejected
+    private List<Reject> store(List<Parsed> batch) {
+        if (batch.isEmpty()) {
+            return List.of();
+        }
+        try {
+            return transactionTemplate.execute(status -> insert(batch));
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                return List.of(new Reject(batch.get(0).line(), "Could not store record: " + rootMessage(e),
+                        batch.get(0).source()));
+            }
+            log.debug("CV import batch failed, retrying record by record: {}", rootMessage(e));
+            List<Reject> rejects = new ArrayList<>();
+            for (Parsed record : batch) {
+                rejects.addAll(store(List.of(record)));
+            }
+            return rejects;
+        }
+    }
+
+    private List<Reject> insert(List<Parsed> batch) {
+        List<Reject> rejects = new ArrayList<>();
+        Map<String, Parsed> byEmail = new LinkedHashMap<>();
+        for (Parsed record : batch) {
+            if (byEmail.putIfAbsent(record.record().getEmail(), record) != null) {
+                rejects.add(new Reject(record.line(), "Email appears earlier in the file: "
+                        + record.record().getEmail(), record.source()));
+            }
+        }
+        // Earlier batches are committed, so this also catches repeats across batches
+        Set<String> existing = Set.copyOf(userRepository.findExistingEmails(byEmail.keySet()));
+        byEmail.values().removeIf(record -> {
+            if (existing.contains(record.record().getEmail())) {
+                rejects.add(new Reject(record.line(), "User already exists: " + record.record().getEmail(),
+                        record.source()));
+                return true;
+            }
+            return false;
+        });
+        if (byEmail.isEmpty()) {
+            return rejects;
+        }
+
+        List<CVImportRecord> records = byEmail.values().stream().map(Parsed::record).toList();
+        List<User> users = userRepository.saveAll(records.stream()
+                .map(record -> new User(record.getEmail(), NO_PASSWORD, record.getFullName()))
+                .toList());
+
+        List<CV> cvs = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            CV cv = new CV();
+            cv.setUserId(users.get(i).getId());
+            cv.setHeadline(records.get(i).getHeadline());
+            cv.setSummary(records.get(i).getSummary());
+            cv.setIsPublic(records.get(i).getIsPublic() == null || records.get(i).getIsPublic());
+            cvs.add(cv);
+        }
+        cvs = cvRepository.saveAll(cvs);
+
+        Map<Long, List<Education>> education = new HashMap<>();
+        Map<Long, List<Experience>> experience = new HashMap<>();
+        for (int i = 0; i < records.size(); i++) {
+            Long cvId = cvs.get(i).getId();
+            education.put(cvId, records.get(i).getEducation().stream().map(dto -> toEducation(cvId, dto)).toList());
+            experience.put(cvId, records.get(i).getExperience().stream().map(dto -> toExperience(cvId, dto)).toList());
+        }
+        educationRepository.saveAll(education.values().stream().flatMap(List::stream).toList());
+        experienceRepository.saveAll(experience.values().stream().flatMap(List::stream).toList());
+        cvDocumentService.createAll(cvs, education, experience);
+
+        // The batch is done with; keep a long-lived (open-in-view) persistence context from growing
+        entityManager.flush();
+        entityManager.clear();
+        // New accounts are not in the directory yet, so no CVChangedEvent listener has work to do
+        return rejects;
+    }
+
+    private static Education toEducation(Long cvId, EducationDto dto) {
+        Education education = new Education();
+        education.setCvId(cvId);
+        education.setInstitution(dto.getInstitution());
+        education.setDegree(dto.getDegree());
+        education.setFieldOfStudy(dto.getFieldOfStudy());
+        education.setStartDate(dto.getStartDate());
+        education.setEndDate(dto.getEndDate());
+        return education;
+    }
+
+    private static Experience toExperience(Long cvId, ExperienceDto dto) {
+        Experience experience = new Experience();
+        experience.setCvId(cvId);
+        experience.setCompany(dto.getCompany());
+        experience.setRole(dto.getRole());
+        experience.setDescription(dto.getDescription());
+        experience.setStartDate(dto.getStartDate());
+        experience.setEndDate(dto.getEndDate());
+        experience.setIsCurrent(Boolean.TRUE.equals(dto.getIsCurrent()));
+        return experience;
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return String.valueOf(root.getMessage());
+    }
+
+    // A record as read: one JSON line, or the cells of one CSV row
+    private record Raw(long line, String text, List<String> cells) {
+    }
+
+    private record Parsed(long line, JsonNode source, CVImportRecord record) {
+    }
+
+    private record Reject(long line, String error, JsonNode record) {
+    }
+
+    private record Chunk(int size, List<Parsed> valid, List<Reject> rejects) {
+    }
+}
@@ -0,0 +1,197 @@
+package com.vericv.platform.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vericv.platform.model.CV;
+import com.vericv.platform.model.CVDocument;
+import com.vericv.platform.model.Education;
+import com.vericv.platform.model.Experience;
+import com.vericv.platform.repository.CVDocumentRepository;
+import com.vericv.platform.repository.CVRepository;
+import com.vericv.platform.repository.EducationRepository;
+import com.vericv.platform.repository.ExperienceRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Maintains the cv_documents read model. CVService calls refresh/delete inside its own
+// transaction, so a document commits or rolls back with the change it reflects. A rebuild
+// holds the CV row lock, so concurrent rebuilds of one CV (edits, or first reads racing to
+// build a missing document) run one after another and each sees what the previous committed.
+@Service
+public class CVDocumentService {
+
+    private static final Logger log = LoggerFactory.getLogger(CVDocumentService.class);
+
+    private static final int BACKFILL_BATCH_SIZE = 500;
+
+    private final CVDocumentRepository cvDocumentRepository;
+    private final CVRepository cvRepository;
+    private final EducationRepository educationRepository;
+    private final ExperienceRepository experienceRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public CVDocumentService(CVDocumentRepository cvDocumentRepository,
+            CVRepository cvRepository,
+            EducationRepository educationRepository,
+            ExperienceRepository experienceRepository,
+            ObjectMapper objectMapper,
+            TransactionTemplate transactionTemplate) {
+        this.cvDocumentRepository = cvDocumentRepository;
+        this.cvRepository = cvRepository;
+        this.educationRepository = educationRepository;
+        this.experienceRepository = experienceRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    // ===== Reads =====
+
+    public Optional<CVDocument> findByCvId(Long cvId) {
+        Optional<CVDocument> document = cvDocumentRepository.findById(cvId);
+        return document.isPresent() ? document : rebuildMissing(cvRepository.findById(cvId));
+    }
+
+    public Optional<CVDocument> findByUserId(Long userId) {
+        Optional<CVDocument> document = cvDocumentRepository.findByUserId(userId);
+        return document.isPresent() ? document : rebuildMissing(cvRepository.findByUserId(userId));
+    }
+
+    // Documents by user id for a batch lookup: one IN query, plus one more only if some users
+    // have no stored document (no CV, or a CV the backfill has not reached yet)
+    public Map<Long, CVDocument> findByUserIds(Collection<Long> userIds) {
+        Map<Long, CVDocument> documents = new HashMap<>();
+        for (CVDocument document : cvDocumentRepository.findByUserIdIn(userIds)) {
+            documents.put(document.getUserId(), document);
+        }
+        if (documents.size() < userIds.size()) {
+            List<Long> missing = userIds.stream().filter(userId -> !documents.containsKey(userId)).toList();
+            for (CV cv : cvRepository.findByUserIdIn(missing)) {
+                rebuildMissing(Optional.of(cv)).ifPresent(document -> documents.put(document.getUserId(), document));
+            }
+        }
+        return documents;
+    }
+
+    public Optional<CVDocumentRepository.Version> findVersionByCvId(Long cvId) {
+        return cvDocumentRepository.findVersionByCvId(cvId);
+    }
+
+    public Optional<CVDocumentRepository.Version> findVersionByUserId(Long userId) {
+        return cvDocumentRepository.findVersionByUserId(userId);
+    }
+
+    public JsonNode parse(CVDocument document) {
+        try {
+            return objectMapper.readTree(document.getDocument());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt CV document " + document.getCvId(), e);
+        }
+    }
+
+    // ===== Writes (joined to the caller's transaction) =====
+
+    // Rebuilds the document from the CV tables, or drops it if the CV is gone
+    @Transactional
+    public CVDocument refresh(Long cvId) {
+        // Flush pending changes first so lifecycle callbacks (updatedAt) are reflected in the document
+        cvRepository.flush();
+        // Already held when CVService locked the CV before changing its entries
+        CV cv = cvRepository.findByIdForUpdate(cvId).orElse(null);
+        if (cv == null) {
+            delete(cvId);
+            return null;
+        }
+
+        CVDocument document = cvDocumentRepository.findById(cvId).orElseGet(() -> new CVDocument(cvId));
+        document.setVersion(document.getVersion() + 1);
+        // Loading an education or experience entry first leaves a lazy proxy for its CV in the session
+        write(document, Hibernate.unproxy(cv, CV.class), educationRepository.findByCvId(cvId),
+                experienceRepository.findByCvId(cvId));
+        return cvDocumentRepository.save(document);
+    }
+
+    // Documents for CVs just inserted in bulk, built from the new entities instead of read back.
+    // Persisted directly: save() on an entity with an assigned id would first SELECT it to merge.
+    @Transactional
+    public void createAll(List<CV> cvs, Map<Long, List<Education>> education,
+            Map<Long, List<Experience>> experience) {
+        for (CV cv : cvs) {
+            CVDocument document = new CVDocument(cv.getId());
+            document.setVersion(1L);
+            write(document, cv, education.getOrDefault(cv.getId(), List.of()),
+                    experience.getOrDefault(cv.getId(), List.of()));
+            entityManager.persist(document);
+        }
+    }
+
+    @Transactional
+    public void delete(Long cvId) {
+        if (cvDocumentRepository.existsById(cvId)) {
+            cvDocumentRepository.deleteById(cvId);
+        }
+    }
+
+    // CVs created before the read model existed get their documents once on startup
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int built = 0;
+        List<Long> cvIds;
+        try {
+            do {
+                cvIds = cvDocumentRepository.findCvIdsWithoutDocument(PageRequest.ofSize(BACKFILL_BATCH_SIZE));
+                List<Long> batch = cvIds;
+                transactionTemplate.executeWithoutResult(status -> batch.forEach(this::refresh));
+                built += batch.size();
+            } while (cvIds.size() == BACKFILL_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            // Missing documents are still built on first read
+            log.warn("CV document backfill stopped after {} documents", built, e);
+            return;
+        }
+
+        if (built > 0) {
+            log.info("Built {} missing CV documents", built);
+        }
+    }
+
+    private void write(CVDocument document, CV cv, List<Education> education, List<Experience> experience) {
+        Map<String, Object> content = new LinkedHashMap<>();
+        content.put("cv", cv);
+        content.put("education", education);
+        content.put("experience", experience);
+
+        document.setUserId(cv.getUserId());
+        document.setIsPublic(cv.getIsPublic());
+        try {
+            document.setDocument(objectMapper.writeValueAsString(content));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize CV " + cv.getId(), e);
+        }
+    }
+
+    // A CV whose document is missing (e.g. written before startup backfill finished) is built on first read
+    private Optional<CVDocument> rebuildMissing(Optional<CV> cv) {
+        return cv.map(found -> transactionTemplate.execute(status -> refresh(found.getId())));
+    }
+}
@@ -0,0 +1,68 @@
+package com.vericv.platform.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+// Bulk CV import from the command line, for partner files too large to upload:
+//   java -jar vericv-backend.jar --spring.main.web-application-type=none --vericv.cv.import.file=partner.csv.gz
+// The format follows the extension (.csv, anything else is JSON Lines; .gz is decompressed). Rejects are
+// written next to the file as <file>.rejects.jsonl. Exits with status 0, or 2 if any record was rejected.
+@Component
+@ConditionalOnProperty("vericv.cv.import.file")
+public class CVImportCommand implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CVImportCommand.class);
+
+    private final CVBulkImporter bulkImporter;
+    private final ApplicationContext context;
+    private final Path file;
+
+    public CVImportCommand(CVBulkImporter bulkImporter, ApplicationContext context,
+            @Value("${vericv.cv.import.file}") Path file) {
+        this.bulkImporter = bulkImporter;
+        this.context = context;
+        this.file = file;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        boolean gzip = name.endsWith(".gz");
+        CVBulkImporter.Format format = name.endsWith(".csv") || name.endsWith(".csv.gz")
+                ? CVBulkImporter.Format.CSV : CVBulkImporter.Format.JSONL;
+        Path rejects = file.resolveSibling(file.getFileName() + ".rejects.jsonl");
+
+        log.info("Importing CVs from {} as {}", file, format);
+        CVBulkImporter.Result result;
+        try (InputStream raw = Files.newInputStream(file);
+                InputStream in = gzip ? new GZIPInputStream(raw, 64 * 1024) : raw;
+                Writer writer = Files.newBufferedWriter(rejects)) {
+            result = bulkImporter.importRecords(in, format, writer);
+        }
+
+        if (result.rejected() == 0) {
+            Files.deleteIfExists(rejects);
+        } else {
+            log.warn("{} records rejected, see {}", result.rejected(), rejects);
+        }
+        log.info("Imported {} of {} records ({} records/s)", result.imported(), result.records(),
+                result.recordsPerSecond());
+        int status = result.rejected() > 0 ? 2 : 0;
+        System.exit(SpringApplication.exit(context, () -> status));
+    }
+}
@@ -1,9 +1,16 @@
 package com.vericv.platform.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.vericv.platform.dto.cv.CVDocumentRequest;
 import com.vericv.platform.dto.cv.CreateCVRequest;
 import com.vericv.platform.dto.cv.EducationDto;
 import com.vericv.platform.dto.cv.ExperienceDto;
+import com.vericv.platform.event.CVChangedEvent;
 import com.vericv.platform.model.CV;
+import com.vericv.platform.model.CVDocument;
 import com.vericv.platform.model.Education;
 import com.vericv.platform.model.Experience;
 import com.vericv.platform.model.User;
@@ -11,27 +18,56 @@ import com.vericv.platform.repository.CVRepository;
 import com.vericv.platform.repository.EducationRepository;
 import com.vericv.platform.repository.ExperienceRepository;
 import com.vericv.platform.repository.UserRepository;
+import com.vericv.platform.util.JsonMergePatch;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 @Service
 public class CVService {
 
+    // Members a merge patch may touch, besides "version"
+    private static final Set<String> CV_PATCH_FIELDS = Set.of("headline", "summary", "isPublic");
+    private static final Set<String> EDUCATION_PATCH_FIELDS = Set.of("institution", "degree", "fieldOfStudy",
+            "startDate", "endDate");
+    private static final Set<String> EXPERIENCE_PATCH_FIELDS = Set.of("company", "role", "description",
+            "startDate", "endDate", "isCurrent");
+
     private final CVRepository cvRepository;
     private final EducationRepository educationRepository;
     private final ExperienceRepository experienceRepository;
     private final UserRepository userRepository;
+    private final CVDocumentService cvDocumentService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
 
     public CVService(CVRepository cvRepository,
             EducationRepository educationRepository,
             ExperienceRepository experienceRepository,
-            UserRepository userRepository) {
+            UserRepository userRepository,
+            CVDocumentService cvDocumentService,
+            ObjectMapper objectMapper,
+            Validator validator,
+            ApplicationEventPublisher eventPublisher) {
         this.cvRepository = cvRepository;
         this.educationRepository = educationRepository;
         this.experienceRepository = experienceRepository;
         this.userRepository = userRepository;
+        this.cvDocumentService = cvDocumentService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
     }
 
     // ===== CV CRUD Operations =====
@@ -54,7 +90,9 @@ public class CVService {
         cv.setSummary(request.getSummary());
         cv.setIsPublic(request.getIsPublic());
 
-        return cvRepository.save(cv);
+        CV saved = cvRepository.save(cv);
+        publishChange(saved);
+        return saved;
     }
 
     public CV getUserCV(Long userId) {
@@ -62,6 +100,12 @@ public class CVService {
                 .orElseThrow(() -> new RuntimeException("CV not found for user: " + userId));
     }
 
+    // The signed-in user's CV with education and experience loaded, in one round trip
+    public CV getUserCVAggregate(String email) {
+        return cvRepository.findAggregateByUserEmail(email)
+                .orElseThrow(() -> new RuntimeException("CV not found for user: " + email));
+    }
+
     public CV getCVById(Long cvId) {
         return cvRepository.findById(cvId)
                 .orElseThrow(() -> new RuntimeException("CV not found with id: " + cvId));
@@ -69,7 +113,7 @@ public class CVService {
 
     @Transactional
     public CV updateCV(Long cvId, Long userId, CreateCVRequest request) {
-        CV cv = cvRepository.findById(cvId)
+        CV cv = cvRepository.findByIdForUpdate(cvId)
                 .orElseThrow(() -> new RuntimeException("CV not found with id: " + cvId));
 
         // Check authorization - user must own the CV
@@ -82,12 +126,38 @@ public class CVService {
         cv.setSummary(request.getSummary());
         cv.setIsPublic(request.getIsPublic());
 
-        return cvRepository.save(cv);
+        CV saved = cvRepository.save(cv);
+        publishChange(saved);
+        return saved;
+    }
+
+    // RFC 7396 merge patch of the CV header. Only columns whose value changes are written
+    // (@DynamicUpdate), and the patch must name the version it was made against.
+    @Transactional
+    public CV patchCV(Long cvId, Long userId, JsonNode patch) {
+        CV cv = cvRepository.findByIdForUpdate(cvId)
+                .orElseThrow(() -> new RuntimeException("CV not found with id: " + cvId));
+
+        if (!cv.getUserId().equals(userId)) {
+            throw new RuntimeException("Unauthorized: You don't own this CV");
+        }
+        checkVersion(patch, cv.getVersion(), CV.class, cvId);
+
+        CreateCVRequest current = new CreateCVRequest(cv.getHeadline(), cv.getSummary());
+        current.setIsPublic(cv.getIsPublic());
+        CreateCVRequest patched = mergePatch(current, patch, CV_PATCH_FIELDS, CreateCVRequest.class);
+
+        cv.setHeadline(patched.getHeadline());
+        cv.setSummary(patched.getSummary());
+        cv.setIsPublic(patched.getIsPublic());
+
+        publishChange(cv);
+        return cv;
     }
 
     @Transactional
     public void deleteCV(Long cvId, Long userId) {
-        CV cv = cvRepository.findById(cvId)
+        CV cv = cvRepository.findByIdForUpdate(cvId)
                 .orElseThrow(() -> new RuntimeException("CV not found with id: " + cvId));
 
         // Check authorization
@@ -100,13 +170,121 @@ public class CVService {
         experienceRepository.deleteAll(experienceRepository.findByCvId(cvId));
 
         cvRepository.delete(cv);
+        publishChange(cv);
+    }
+
+    // ===== Whole-CV Upsert =====
+
+    // Creates or replaces the user's CV in one transaction, writing only what changed:
+    // entry updates go through dirty checking, removed entries are one DELETE per table and
+    // new entries go through saveAll. All of it stays on the JPA path, so updates are sent as JDBC
+    // batches, and inserts are too as long as the id generator allows it (IdSequences).
+    @Transactional
+    public CVDocument saveDocument(Long userId, CVDocumentRequest request) {
+        CV cv = cvRepository.findByUserIdForUpdate(userId).orElse(null);
+        if (cv == null) {
+            if (!userRepository.existsById(userId)) {
+                throw new RuntimeException("User not found with id: " + userId);
+            }
+            cv = new CV();
+            cv.setUserId(userId);
+        }
+        cv.setHeadline(request.getHeadline());
+        cv.setSummary(request.getSummary());
+        cv.setIsPublic(request.getIsPublic());
+        cv = cvRepository.save(cv);
+
+        syncEducation(cv.getId(), request.getEducation());
+        syncExperience(cv.getId(), request.getExperience());
+
+        publishChange(cv);
+        return cvDocumentService.findByCvId(cv.getId())
+                .orElseThrow(() -> new IllegalStateException("CV document missing after save"));
+    }
+
+    private void syncEducation(Long cvId, List<EducationDto> entries) {
+        Map<Long, Education> stored = new HashMap<>();
+        for (Education education : educationRepository.findByCvId(cvId)) {
+            stored.put(education.getId(), education);
+        }
+
+        List<EducationDto> added = new ArrayList<>();
+        for (EducationDto dto : entries) {
+            if (dto.getId() == null) {
+                added.add(dto);
+                continue;
+            }
+            Education education = stored.remove(dto.getId());
+            if (education == null) {
+                throw new RuntimeException("Education not found in this CV (or listed twice): " + dto.getId());
+            }
+            education.setInstitution(dto.getInstitution());
+            education.setDegree(dto.getDegree());
+            education.setFieldOfStudy(dto.getFieldOfStudy());
+            education.setStartDate(dto.getStartDate());
+            education.setEndDate(dto.getEndDate());
+        }
+
+        if (!stored.isEmpty()) {
+            educationRepository.deleteAllInBatch(stored.values());
+        }
+        educationRepository.saveAll(added.stream().map(dto -> {
+            Education education = new Education();
+            education.setCvId(cvId);
+            education.setInstitution(dto.getInstitution());
+            education.setDegree(dto.getDegree());
+            education.setFieldOfStudy(dto.getFieldOfStudy());
+            education.setStartDate(dto.getStartDate());
+            education.setEndDate(dto.getEndDate());
+            return education;
+        }).toList());
+    }
+
+    private void syncExperience(Long cvId, List<ExperienceDto> entries) {
+        Map<Long, Experience> stored = new HashMap<>();
+        for (Experience experience : experienceRepository.findByCvId(cvId)) {
+            stored.put(experience.getId(), experience);
+        }
+
+        List<ExperienceDto> added = new ArrayList<>();
+        for (ExperienceDto dto : entries) {
+            if (dto.getId() == null) {
+                added.add(dto);
+                continue;
+            }
+            Experience experience = stored.remove(dto.getId());
+            if (experience == null) {
+                throw new RuntimeException("Experience not found in this CV (or listed twice): " + dto.getId());
+            }
+            experience.setCompany(dto.getCompany());
+            experience.setRole(dto.getRole());
+            experience.setDescription(dto.getDescription());
+            experience.setStartDate(dto.getStartDate());
+            experience.setEndDate(dto.getEndDate());
+            experience.setIsCurrent(Boolean.TRUE.equals(dto.getIsCurrent()));
+        }
+
+        if (!stored.isEmpty()) {
+            experienceRepository.deleteAllInBatch(stored.values());
+        }
+        experienceRepository.saveAll(added.stream().map(dto -> {
+            Experience experience = new Experience();
+            experience.setCvId(cvId);
+            experience.setCompany(dto.getCompany());
+            experience.setRole(dto.getRole());
+            experience.setDescription(dto.getDescription());
+            experience.setStartDate(dto.getStartDate());
+            experience.setEndDate(dto.getEndDate());
+            experience.setIsCurrent(Boolean.TRUE.equals(dto.getIsCurrent()));
+            return experience;
+        }).toList());
     }
 
     // ===== Education Operations =====
 
     @Transactional
     public Education addEducation(Long cvId, Long userId, EducationDto dto) {
-        CV cv = cvRepository.findById(cvId)
+        CV cv = cvRepository.findByIdForUpdate(cvId)
                 .orElseThrow(() -> new RuntimeException("CV not found with id: " + cvId));
 
         // Check authorization
@@ -122,7 +300,9 @@ public class CVService {
         education.setStartDate(dto.getStartDate());
         education.setEndDate(dto.getEndDate());
 
-        return educationRepository.save(education);
+        Education saved = educationRepository.save(education);
+        publishChange(cv);
+        return saved;
     }
 
     public List<Education> getEducationByCvId(Long cvId) {
@@ -135,7 +315,7 @@ public class CVService {
                 .orElseThrow(() -> new RuntimeException("Education not found with id: " + educationId));
 
         // Check authorization through CV
-        CV cv = cvRepository.findById(education.getCvId())
+        CV cv = cvRepository.findByIdForUpdate(education.getCvId())
                 .orElseThrow(() -> new RuntimeException("CV not found"));
 
         if (!cv.getUserId().equals(userId)) {
@@ -149,7 +329,38 @@ public class CVService {
         education.setStartDate(dto.getStartDate());
         education.setEndDate(dto.getEndDate());
 
-        return educationRepository.save(education);
+        Education saved = educationRepository.save(education);
+        publishChange(cv);
+        return saved;
+    }
+
+    @Transactional
+    public Education patchEducation(Long educationId, Long userId, JsonNode patch) {
+        Education education = educationRepository.findById(educationId)
+                .orElseThrow(() -> new RuntimeException("Education not found with id: " + educationId));
+
+        CV cv = cvRepository.findByIdForUpdate(education.getCvId())
+                .orElseThrow(() -> new RuntimeException("CV not found"));
+
+        if (!cv.getUserId().equals(userId)) {
+            throw new RuntimeException("Unauthorized: You don't own this education entry");
+        }
+        checkVersion(patch, education.getVersion(), Education.class, educationId);
+
+        EducationDto current = new EducationDto(education.getInstitution(), education.getDegree(),
+                education.getFieldOfStudy());
+        current.setStartDate(education.getStartDate());
+        current.setEndDate(education.getEndDate());
+        EducationDto patched = mergePatch(current, patch, EDUCATION_PATCH_FIELDS, EducationDto.class);
+
+        education.setInstitution(patched.getInstitution());
+        education.setDegree(patched.getDegree());
+        education.setFieldOfStudy(patched.getFieldOfStudy());
+        education.setStartDate(patched.getStartDate());
+        education.setEndDate(patched.getEndDate());
+
+        publishChange(cv);
+        return education;
     }
 
     @Transactional
@@ -158,7 +369,7 @@ public class CVService {
                 .orElseThrow(() -> new RuntimeException("Education not found with id: " + educationId));
 
         // Check authorization
-        CV cv = cvRepository.findById(education.getCvId())
+        CV cv = cvRepository.findByIdForUpdate(education.getCvId())
                 .orElseThrow(() -> new RuntimeException("CV not found"));
 
         if (!cv.getUserId().equals(userId)) {
@@ -166,13 +377,14 @@ public class CVService {
         }
 
         educationRepository.delete(education);
+        publishChange(cv);
     }
 
     // ===== Experience Operations =====
 
     @Transactional
     public Experience addExperience(Long cvId, Long userId, ExperienceDto dto) {
-        CV cv = cvRepository.findById(cvId)
+        CV cv = cvRepository.findByIdForUpdate(cvId)
                 .orElseThrow(() -> new RuntimeException("CV not found with id: " + cvId));
 
         // Check authorization
@@ -189,7 +401,9 @@ public class CVService {
         experience.setEndDate(dto.getEndDate());
         experience.setIsCurrent(dto.getIsCurrent());
 
-        return experienceRepository.save(experience);
+        Experience saved = experienceRepository.save(experience);
+        publishChange(cv);
+        return saved;
     }
 
     public List<Experience> getExperienceByCvId(Long cvId) {
@@ -202,7 +416,7 @@ public class CVService {
                 .orElseThrow(() -> new RuntimeException("Experience not found with id: " + experienceId));
 
         // Check authorization
-        CV cv = cvRepository.findById(experience.getCvId())
+        CV cv = cvRepository.findByIdForUpdate(experience.getCvId())
                 .orElseThrow(() -> new RuntimeException("CV not found"));
 
         if (!cv.getUserId().equals(userId)) {
@@ -217,7 +431,42 @@ public class CVService {
         experience.setEndDate(dto.getEndDate());
         experience.setIsCurrent(dto.getIsCurrent());
 
-        return experienceRepository.save(experience);
+        Experience saved = experienceRepository.save(experience);
+        publishChange(cv);
+        return saved;
+    }
+
+    @Transactional
+    public Experience patchExperience(Long experienceId, Long userId, JsonNode patch) {
+        Experience experience = experienceRepository.findById(experienceId)
+                .orElseThrow(() -> new RuntimeException("Experience not found with id: " + experienceId));
+
+        CV cv = cvRepository.findByIdForUpdate(experience.getCvId())
+                .orElseThrow(() -> new RuntimeException("CV not found"));
+
+        if (!cv.getUserId().equals(userId)) {
+            throw new RuntimeException("Unauthorized: You don't own this experience entry");
+        }
+        checkVersion(patch, experience.getVersion(), Experience.class, experienceId);
+
+        ExperienceDto current = new ExperienceDto();
+        current.setCompany(experience.getCompany());
+        current.setRole(experience.getRole());
+        current.setDescription(experience.getDescription());
+        current.setStartDate(experience.getStartDate());
+        current.setEndDate(experience.getEndDate());
+        current.setIsCurrent(experience.getIsCurrent());
+        ExperienceDto patched = mergePatch(current, patch, EXPERIENCE_PATCH_FIELDS, ExperienceDto.class);
+
+        experience.setCompany(patched.getCompany());
+        experience.setRole(patched.getRole());
+        experience.setDescription(patched.getDescription());
+        experience.setStartDate(patched.getStartDate());
+        experience.setEndDate(patched.getEndDate());
+        experience.setIsCurrent(Boolean.TRUE.equals(patched.getIsCurrent()));
+
+        publishChange(cv);
+        return experience;
     }
 
     @Transactional
@@ -226,7 +475,7 @@ public class CVService {
                 .orElseThrow(() -> new RuntimeException("Experience not found with id: " + experienceId));
 
         // Check authorization
-        CV cv = cvRepository.findById(experience.getCvId())
+        CV cv = cvRepository.findByIdForUpdate(experience.getCvId())
                 .orElseThrow(() -> new RuntimeException("CV not found"));
 
         if (!cv.getUserId().equals(userId)) {
@@ -234,10 +483,58 @@ public class CVService {
         }
 
         experienceRepository.delete(experience);
+        publishChange(cv);
     }
 
     // ===== Helper Methods =====
 
+    // Stale edits fail here; an edit racing this one past the check fails on the versioned UPDATE
+    private void checkVersion(JsonNode patch, Long currentVersion, Class<?> type, Long id) {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("A merge patch must be a JSON object");
+        }
+        JsonNode version = patch.get("version");
+        if (version == null || !version.canConvertToLong()) {
+            throw new IllegalArgumentException("The patch must include the \"version\" it was made against");
+        }
+        if (version.asLong() != currentVersion) {
+            throw new ObjectOptimisticLockingFailureException(type, id);
+        }
+    }
+
+    // Applies the patch to the editable fields (as their request DTO) and validates the result
+    // with the same constraints as the full update
+    private <T> T mergePatch(T current, JsonNode patch, Set<String> editable, Class<T> type) {
+        ObjectNode changes = ((ObjectNode) patch).deepCopy();
+        changes.remove("version");
+        changes.fieldNames().forEachRemaining(field -> {
+            if (!editable.contains(field)) {
+                throw new IllegalArgumentException("Field cannot be patched: " + field
+                        + ". Use any of " + new TreeSet<>(editable));
+            }
+        });
+
+        T patched;
+        try {
+            patched = objectMapper.treeToValue(JsonMergePatch.apply(objectMapper.valueToTree(current), changes), type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid patch: " + e.getOriginalMessage(), e);
+        }
+        Set<ConstraintViolation<T>> violations = validator.validate(patched);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<T> violation = violations.iterator().next();
+            throw new IllegalArgumentException(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        return patched;
+    }
+
+    // The CV document is rewritten in the caller's transaction; the event is delivered to
+    // listeners after commit (see DirectoryRefreshWorker)
+    private void publishChange(CV cv) {
+        cvDocumentService.refresh(cv.getId());
+        eventPublisher.publishEvent(new CVChangedEvent(cv.getUserId(), cv.getId()));
+    }
+
     public List<CV> getAllPublicCVs() {
         return cvRepository.findByIsPublicTrue();
     }
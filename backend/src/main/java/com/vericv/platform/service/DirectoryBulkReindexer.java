@@ -0,0 +1,247 @@
+package com.vericv.platform.service;
+
+import com.vericv.platform.model.DirectoryReindexJob;
+import com.vericv.platform.repository.DirectoryReindexJobRepository;
+import com.vericv.platform.search.DirectoryFacetIndex;
+import com.vericv.platform.search.DirectoryQueryCache;
+import com.vericv.platform.search.DirectorySearchEngine;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// Recomputes verification badge and searchable text for the whole directory in Postgres.
+// Each chunk of entry ids is one set-based UPDATE: education and experience are aggregated per user
+// with GROUP BY, so a chunk costs one round trip instead of ~8 queries per entry. Chunks run in
+// parallel; the contiguous prefix of finished chunks is checkpointed, so a failed or interrupted
+// job resumes where it stopped. The statement mirrors DirectoryService.calculateVerificationBadge
+// and buildSearchableText.
+@Component
+public class DirectoryBulkReindexer {
+
+    private static final Logger log = LoggerFactory.getLogger(DirectoryBulkReindexer.class);
+
+    private static final String CHUNK_SQL = """
+            WITH chunk AS (
+                SELECT d.id, d.user_id FROM directory_entries d WHERE d.id >= ? AND d.id < ?
+            ), edu AS (
+                SELECT c.user_id, BOOL_OR(e.is_verified) AS verified,
+                       STRING_AGG(CONCAT_WS(' ', e.institution, e.degree, e.field_of_study), ' ' ORDER BY e.id) AS text
+                FROM chunk k JOIN cvs c ON c.user_id = k.user_id JOIN education e ON e.cv_id = c.id
+                GROUP BY c.user_id
+            ), exp AS (
+                SELECT c.user_id, BOOL_OR(x.is_verified) AS verified,
+                       STRING_AGG(CONCAT_WS(' ', x.company, x.role), ' ' ORDER BY x.id) AS text
+                FROM chunk k JOIN cvs c ON c.user_id = k.user_id JOIN experience x ON x.cv_id = c.id
+                GROUP BY c.user_id
+            )
+            UPDATE directory_entries d SET
+                verification_badge = CASE
+                        (CASE WHEN u.is_verified THEN 1 ELSE 0 END)
+                        + (CASE WHEN edu.verified THEN 1 ELSE 0 END)
+                        + (CASE WHEN exp.verified THEN 1 ELSE 0 END)
+                    WHEN 0 THEN 'NONE' WHEN 1 THEN 'BRONZE' WHEN 2 THEN 'SILVER' ELSE 'GOLD' END,
+                searchable_text = LEFT(CONCAT_WS(' ', u.full_name, u.email, d.headline, d.location,
+                        edu.text, exp.text), 2000),
+                updated_at = now()
+            FROM chunk k
+                JOIN users u ON u.id = k.user_id
+                LEFT JOIN edu ON edu.user_id = k.user_id
+                LEFT JOIN exp ON exp.user_id = k.user_id
+            WHERE d.id = k.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DirectoryReindexJobRepository jobRepository;
+    private final DirectoryFacetIndex facetIndex;
+    private final DirectoryQueryCache queryCache;
+    private final DirectorySearchEngine searchEngine;
+
+    @Value("${vericv.directory.bulk-reindex.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${vericv.directory.bulk-reindex.parallelism:4}")
+    private int parallelism;
+
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "directory-bulk-reindex");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // State of the current run; guarded by this
+    private DirectoryReindexJob job;
+    private boolean running;
+    private long runStartedAt;
+    private long runFinishedAt;
+    private long runEntriesUpdated;
+    private final TreeSet<Long> finishedChunks = new TreeSet<>();
+
+    public DirectoryBulkReindexer(JdbcTemplate jdbcTemplate, DirectoryReindexJobRepository jobRepository,
+            DirectoryFacetIndex facetIndex, DirectoryQueryCache queryCache, DirectorySearchEngine searchEngine) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jobRepository = jobRepository;
+        this.facetIndex = facetIndex;
+        this.queryCache = queryCache;
+        this.searchEngine = searchEngine;
+    }
+
+    // Resumes the latest unfinished job, or starts a new one; returns false if a job is already running
+    public synchronized boolean start() {
+        if (running) {
+            return false;
+        }
+        job = jobRepository.findFirstByOrderByIdDesc()
+                .filter(last -> last.getStatus() != DirectoryReindexJob.Status.COMPLETED)
+                .orElseGet(() -> new DirectoryReindexJob(chunkSize,
+                        jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM directory_entries", Long.class)));
+        job.setStatus(DirectoryReindexJob.Status.RUNNING);
+        job.setLastError(null);
+        job = jobRepository.save(job);
+
+        running = true;
+        runStartedAt = System.currentTimeMillis();
+        runFinishedAt = 0;
+        runEntriesUpdated = 0;
+        finishedChunks.clear();
+        coordinator.submit(this::run);
+        return true;
+    }
+
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (job == null) {
+            jobRepository.findFirstByOrderByIdDesc().ifPresent(last -> job = last);
+        }
+        if (job == null) {
+            status.put("status", "NEVER_RUN");
+            return status;
+        }
+        status.put("jobId", job.getId());
+        status.put("status", job.getStatus());
+        status.put("checkpointId", job.getCheckpointId());
+        status.put("maxEntryId", job.getMaxEntryId());
+        status.put("entriesUpdated", job.getEntriesUpdated());
+        status.put("percentComplete", job.getMaxEntryId() == 0 ? 100.0
+                : Math.min(100.0, 100.0 * job.getCheckpointId() / (job.getMaxEntryId() + 1)));
+        // Throughput of the current (or last) run in this process
+        if (runStartedAt > 0) {
+            double seconds = runSeconds();
+            status.put("elapsedSeconds", seconds);
+            status.put("entriesPerSecond", Math.round(runEntriesUpdated / seconds));
+        }
+        status.put("startedAt", job.getStartedAt());
+        status.put("finishedAt", job.getFinishedAt());
+        status.put("lastError", job.getLastError());
+        return status;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // The checkpoint is already saved; the next start resumes from it
+        coordinator.shutdownNow();
+    }
+
+    private void run() {
+        long from;
+        long to;
+        int step;
+        synchronized (this) {
+            from = job.getCheckpointId();
+            to = job.getMaxEntryId() + 1;
+            step = job.getChunkSize();
+        }
+
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism);
+        List<Future<?>> chunks = new ArrayList<>();
+        Throwable error = null;
+        try {
+            for (long lo = from; lo < to; lo += step) {
+                long chunkStart = lo;
+                long chunkEnd = Math.min(lo + step, to);
+                chunks.add(workers.submit(() -> chunkDone(chunkStart,
+                        jdbcTemplate.update(CHUNK_SQL, chunkStart, chunkEnd))));
+            }
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error = new IllegalStateException("Bulk reindex interrupted");
+        } catch (ExecutionException e) {
+            error = e.getCause();
+        } finally {
+            // Let in-flight chunks settle so no checkpoint is written after the job is closed
+            workers.shutdownNow();
+            try {
+                workers.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        finish(error);
+    }
+
+    private double runSeconds() {
+        long end = runFinishedAt > 0 ? runFinishedAt : System.currentTimeMillis();
+        return Math.max(0.001, (end - runStartedAt) / 1000.0);
+    }
+
+    private synchronized void chunkDone(long chunkStart, int updated) {
+        finishedChunks.add(chunkStart);
+        long checkpoint = job.getCheckpointId();
+        while (finishedChunks.remove(checkpoint)) {
+            checkpoint += job.getChunkSize();
+        }
+        runEntriesUpdated += updated;
+        job.setCheckpointId(Math.min(checkpoint, job.getMaxEntryId() + 1));
+        job.setEntriesUpdated(job.getEntriesUpdated() + updated);
+        job = jobRepository.save(job);
+    }
+
+    private void finish(Throwable error) {
+        synchronized (this) {
+            if (error == null) {
+                job.setStatus(DirectoryReindexJob.Status.COMPLETED);
+                job.setFinishedAt(LocalDateTime.now());
+            } else {
+                job.setStatus(DirectoryReindexJob.Status.FAILED);
+                String message = String.valueOf(error.getMessage());
+                job.setLastError(message.substring(0, Math.min(500, message.length())));
+            }
+            job = jobRepository.save(job);
+            running = false;
+            runFinishedAt = System.currentTimeMillis();
+        }
+
+        double seconds = runSeconds();
+        if (error != null) {
+            log.error("Bulk directory reindex failed at checkpoint {}", job.getCheckpointId(), error);
+            return;
+        }
+        log.info("Bulk directory reindex finished: {} entries in {} s ({} entries/s)",
+                runEntriesUpdated, Math.round(seconds), Math.round(runEntriesUpdated / seconds));
+
+        // The UPDATEs bypass entity events, so refresh everything derived from badges and searchable text
+        queryCache.invalidateAll();
+        facetIndex.build();
+        // like and fts modes read directory_entries directly
+        if (searchEngine.supportsRebuild()) {
+            searchEngine.rebuild();
+        }
+    }
+}
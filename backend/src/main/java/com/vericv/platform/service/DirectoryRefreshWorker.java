@@ -0,0 +1,118 @@
+package com.vericv.platform.service;
+
+import com.vericv.platform.event.CVChangedEvent;
+import com.vericv.platform.repository.DirectoryEntryRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Keeps directory entries (badge and searchable text) in step with CV edits, off the request path.
+// Committed CV changes mark the owner dirty; a user is rebuilt once their edits have been quiet for
+// debounce-ms, or at the latest max-delay-ms after the first edit, so a burst of edits costs one rebuild.
+// A failed rebuild is retried with exponential backoff, up to MAX_ATTEMPTS times.
+@Component
+public class DirectoryRefreshWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(DirectoryRefreshWorker.class);
+
+    static final int MAX_ATTEMPTS = 5;
+
+    private final DirectoryService directoryService;
+    private final DirectoryEntryRepository directoryEntryRepository;
+    private final long debounceMillis;
+    private final long maxDelayMillis;
+
+    // userId -> pending rebuild; replaced (never mutated) so the drain can remove it atomically
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+
+    public DirectoryRefreshWorker(DirectoryService directoryService,
+            DirectoryEntryRepository directoryEntryRepository,
+            @Value("${vericv.directory.refresh.debounce-ms:2000}") long debounceMillis,
+            @Value("${vericv.directory.refresh.max-delay-ms:30000}") long maxDelayMillis) {
+        this.directoryService = directoryService;
+        this.directoryEntryRepository = directoryEntryRepository;
+        this.debounceMillis = debounceMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCVChanged(CVChangedEvent event) {
+        changed(event.getUserId(), System.currentTimeMillis());
+    }
+
+    // Users waiting for a rebuild
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    @Scheduled(fixedDelayString = "${vericv.directory.refresh.tick-ms:500}")
+    public void drainDue() {
+        drain(System.currentTimeMillis());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Whatever is still pending gets rebuilt now rather than left stale
+        drain(Long.MAX_VALUE);
+    }
+
+    void changed(Long userId, long now) {
+        pending.merge(userId, new Pending(now, now, 0, 0),
+                (previous, next) -> new Pending(previous.firstChange, now, previous.attempts, previous.retryAt));
+    }
+
+    void drain(long now) {
+        Map<Long, Pending> due = new LinkedHashMap<>();
+        pending.forEach((userId, change) -> {
+            if (change.dueAt(debounceMillis, maxDelayMillis) <= now && pending.remove(userId, change)) {
+                due.put(userId, change);
+            }
+        });
+
+        int failed = 0;
+        for (Map.Entry<Long, Pending> change : due.entrySet()) {
+            try {
+                if (directoryEntryRepository.existsByUserId(change.getKey())) {
+                    directoryService.updateDirectoryEntry(change.getKey());
+                }
+            } catch (RuntimeException e) {
+                failed++;
+                retry(change.getKey(), change.getValue(), now, e);
+            }
+        }
+        if (!due.isEmpty()) {
+            log.debug("Refreshed {} directory entries after CV changes, {} failed", due.size() - failed, failed);
+        }
+    }
+
+    // Puts the user back with a doubled delay; an edit made meanwhile keeps its own (later) due time
+    private void retry(Long userId, Pending change, long now, RuntimeException e) {
+        int attempts = change.attempts + 1;
+        if (attempts >= MAX_ATTEMPTS) {
+            log.error("Directory refresh for user {} failed {} times, giving up until their next CV change: {}",
+                    userId, attempts, e.getMessage());
+            return;
+        }
+        long backoff = debounceMillis << attempts;
+        long retryAt = now > Long.MAX_VALUE - backoff ? Long.MAX_VALUE : now + backoff;
+        log.warn("Directory refresh failed for user {} (attempt {}), retrying in {} ms: {}", userId, attempts,
+                backoff, e.getMessage());
+        pending.merge(userId, new Pending(change.firstChange, change.lastChange, attempts, retryAt),
+                (edited, failed) -> new Pending(edited.firstChange, edited.lastChange, attempts, retryAt));
+    }
+
+    // retryAt is 0 until a rebuild has failed
+    private record Pending(long firstChange, long lastChange, int attempts, long retryAt) {
+        long dueAt(long debounceMillis, long maxDelayMillis) {
+            return Math.max(retryAt, Math.min(lastChange + debounceMillis, firstChange + maxDelayMillis));
+        }
+    }
+}
@@ -1,5 +1,16 @@
 package com.vericv.platform.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.vericv.platform.analytics.ProfileViewAnalytics;
+import com.vericv.platform.analytics.TrendingProfiles;
+import com.vericv.platform.analytics.ViewDeduplicator;
+import com.vericv.platform.dto.directory.DirectoryCursor;
+import com.vericv.platform.dto.directory.DirectoryListing;
+import com.vericv.platform.dto.directory.DirectoryPage;
+import com.vericv.platform.dto.directory.FacetedPage;
+import com.vericv.platform.dto.directory.ProfileViewStats;
+import com.vericv.platform.dto.directory.TrendingProfile;
+import com.vericv.platform.event.DirectoryEntryChangedEvent;
 import com.vericv.platform.model.CV;
 import com.vericv.platform.model.DirectoryEntry;
 import com.vericv.platform.model.Education;
@@ -10,12 +21,26 @@ import com.vericv.platform.repository.DirectoryEntryRepository;
 import com.vericv.platform.repository.EducationRepository;
 import com.vericv.platform.repository.ExperienceRepository;
 import com.vericv.platform.repository.UserRepository;
+import com.vericv.platform.search.DirectoryFacetIndex;
+import com.vericv.platform.search.DirectoryQueryCache;
+import com.vericv.platform.search.DirectorySearchEngine;
+import com.vericv.platform.search.DirectorySuggester;
+import com.vericv.platform.search.SuggestionIndex;
+import com.vericv.platform.search.TrigramFuzzySearch;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class DirectoryService {
@@ -25,17 +50,59 @@ public class DirectoryService {
     private final EducationRepository educationRepository;
     private final ExperienceRepository experienceRepository;
     private final CVRepository cvRepository;
+    private final DirectorySearchEngine searchEngine;
+    private final TrigramFuzzySearch fuzzySearch;
+    private final DirectoryFacetIndex facetIndex;
+    private final DirectoryQueryCache queryCache;
+    private final DirectorySuggester suggester;
+    private final ProfileViewCounter profileViewCounter;
+    private final ProfileViewAnalytics viewAnalytics;
+    private final TrendingProfiles trendingProfiles;
+    private final ViewDeduplicator viewDeduplicator;
+    private final DirectoryBulkReindexer bulkReindexer;
+    private final CVDocumentService cvDocumentService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${vericv.directory.page.default-limit:20}")
+    private int defaultPageLimit;
+
+    @Value("${vericv.directory.page.max-limit:100}")
+    private int maxPageLimit;
 
     public DirectoryService(DirectoryEntryRepository directoryEntryRepository,
             UserRepository userRepository,
             EducationRepository educationRepository,
             ExperienceRepository experienceRepository,
-            CVRepository cvRepository) {
+            CVRepository cvRepository,
+            DirectorySearchEngine searchEngine,
+            TrigramFuzzySearch fuzzySearch,
+            DirectoryFacetIndex facetIndex,
+            DirectoryQueryCache queryCache,
+            DirectorySuggester suggester,
+            ProfileViewCounter profileViewCounter,
+            ProfileViewAnalytics viewAnalytics,
+            TrendingProfiles trendingProfiles,
+            ViewDeduplicator viewDeduplicator,
+            DirectoryBulkReindexer bulkReindexer,
+            CVDocumentService cvDocumentService,
+            ApplicationEventPublisher eventPublisher) {
         this.directoryEntryRepository = directoryEntryRepository;
         this.userRepository = userRepository;
         this.educationRepository = educationRepository;
         this.experienceRepository = experienceRepository;
         this.cvRepository = cvRepository;
+        this.searchEngine = searchEngine;
+        this.fuzzySearch = fuzzySearch;
+        this.facetIndex = facetIndex;
+        this.queryCache = queryCache;
+        this.suggester = suggester;
+        this.profileViewCounter = profileViewCounter;
+        this.viewAnalytics = viewAnalytics;
+        this.trendingProfiles = trendingProfiles;
+        this.viewDeduplicator = viewDeduplicator;
+        this.bulkReindexer = bulkReindexer;
+        this.cvDocumentService = cvDocumentService;
+        this.eventPublisher = eventPublisher;
     }
 
     // ===== Directory Entry Management =====
@@ -56,13 +123,14 @@ public class DirectoryService {
         entry.setVerificationBadge(calculateVerificationBadge(userId));
         entry.setSearchableText(buildSearchableText(userId, user));
 
-        return directoryEntryRepository.save(entry);
+        return saveAndPublish(entry, null);
     }
 
     @Transactional
     public DirectoryEntry updateDirectoryEntry(Long userId) {
         DirectoryEntry entry = directoryEntryRepository.findByUserId(userId)
                 .orElseThrow(() -> new RuntimeException("User not in directory"));
+        DirectoryEntryChangedEvent.Snapshot before = DirectoryEntryChangedEvent.Snapshot.of(entry);
 
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -72,7 +140,7 @@ public class DirectoryService {
         entry.setSearchableText(buildSearchableText(userId, user));
         entry.setLastActive(LocalDateTime.now());
 
-        return directoryEntryRepository.save(entry);
+        return saveAndPublish(entry, before);
     }
 
     @Transactional
@@ -81,21 +149,25 @@ public class DirectoryService {
                 .orElseThrow(() -> new RuntimeException("User not in directory"));
 
         directoryEntryRepository.delete(entry);
+        viewAnalytics.deleteStats(entry.getId());
+        eventPublisher.publishEvent(DirectoryEntryChangedEvent.removed(entry));
     }
 
     @Transactional
     public DirectoryEntry updateVisibility(Long userId, Boolean isVisible) {
         DirectoryEntry entry = directoryEntryRepository.findByUserId(userId)
                 .orElseThrow(() -> new RuntimeException("User not in directory"));
+        DirectoryEntryChangedEvent.Snapshot before = DirectoryEntryChangedEvent.Snapshot.of(entry);
 
         entry.setIsVisible(isVisible);
-        return directoryEntryRepository.save(entry);
+        return saveAndPublish(entry, before);
     }
 
     @Transactional
     public DirectoryEntry updateHeadlineAndLocation(Long userId, String headline, String location) {
         DirectoryEntry entry = directoryEntryRepository.findByUserId(userId)
                 .orElseThrow(() -> new RuntimeException("User not in directory"));
+        DirectoryEntryChangedEvent.Snapshot before = DirectoryEntryChangedEvent.Snapshot.of(entry);
 
         if (headline != null) {
             entry.setHeadline(headline);
@@ -105,42 +177,140 @@ public class DirectoryService {
         }
 
         entry.setSearchableText(buildSearchableText(userId, null));
-        return directoryEntryRepository.save(entry);
+        return saveAndPublish(entry, before);
     }
 
     // ===== Search & Discovery =====
 
-    public List<DirectoryEntry> searchDirectory(String keyword) {
+    // fields: sparse fieldset from DirectoryListing.parseFields
+    public DirectoryPage searchDirectory(String keyword, boolean fuzzy, Set<String> fields, String cursor,
+            Integer limit) {
+        DirectoryCursor position = DirectoryCursor.decode(cursor);
+        int pageSize = pageSize(limit);
+        return queryCache.get(keyword, fuzzy, fields, cursor, pageSize,
+                () -> runSearch(keyword, fuzzy, fields, position, pageSize));
+    }
+
+    private DirectoryPage runSearch(String keyword, boolean fuzzy, Set<String> fields, DirectoryCursor position,
+            int pageSize) {
         if (keyword == null || keyword.trim().isEmpty()) {
-            return directoryEntryRepository.findByIsVisibleTrue();
+            return DirectoryPage.fromKeyset(directoryEntryRepository.findListingPage(fields, null, null,
+                    position.getProfileViews(), position.getId(), pageSize + 1), pageSize);
+        }
+        if (fuzzy && fuzzySearch.isAvailable()) {
+            return fuzzySearch.search(keyword.trim(), fields, position, pageSize);
+        }
+        return searchEngine.search(keyword.trim(), fields, position, pageSize);
+    }
+
+    public Map<String, Object> getSearchCacheStats() {
+        return queryCache.stats();
+    }
+
+    // Only the lucene search mode keeps an index of its own
+    public boolean hasSearchIndex() {
+        return searchEngine.supportsRebuild();
+    }
+
+    // Returns false if a rebuild is already in progress
+    public boolean rebuildSearchIndex() {
+        return searchEngine.rebuild();
+    }
+
+    // Recomputes badge and searchable text of every entry; returns false if a job is already running
+    public boolean startBulkReindex() {
+        return bulkReindexer.start();
+    }
+
+    public Map<String, Object> getBulkReindexStatus() {
+        return bulkReindexer.status();
+    }
+
+    // Feeds every visible entry (optionally one badge level) to the sink through a server-side cursor.
+    // Listings are plain projections, not managed entities, so memory stays flat however large the directory is.
+    @Transactional(readOnly = true)
+    public void streamDirectory(DirectoryEntry.VerificationBadge badge, Set<String> fields,
+            Consumer<DirectoryListing> sink) {
+        try (Stream<DirectoryListing> listings = directoryEntryRepository.streamListings(fields, badge)) {
+            listings.forEach(sink);
         }
-        return directoryEntryRepository.searchDirectory(keyword.trim());
     }
 
-    public DirectoryEntry getPublicProfile(Long userId) {
+    // Any combination of badge, location and current employer; null filters are ignored
+    public FacetedPage facetedSearch(String badge, String location, String employer, Set<String> fields,
+            String cursor, Integer limit) {
+        Map<String, String> filters = new HashMap<>();
+        filters.put(DirectoryFacetIndex.BADGE, badge);
+        filters.put(DirectoryFacetIndex.LOCATION, location);
+        filters.put(DirectoryFacetIndex.EMPLOYER, employer);
+        return facetIndex.query(filters, fields, DirectoryCursor.decode(cursor), pageSize(limit));
+    }
+
+    public List<SuggestionIndex.Term> suggest(String prefix, int limit) {
+        return suggester.suggest(prefix, limit);
+    }
+
+    // viewerKey identifies the viewer for analytics and view de-duplication (see DirectoryController)
+    public DirectoryEntry getPublicProfile(Long userId, String viewerKey) {
         DirectoryEntry entry = directoryEntryRepository.findByUserId(userId)
                 .orElseThrow(() -> new RuntimeException("User not found in directory"));
 
-        incrementProfileViews(userId);
+        // Analytics keep every hit so stats can tell reloads from unique viewers
+        viewAnalytics.record(entry.getId(), viewerKey);
+
+        // Repeat views within the de-duplication window do not count towards profileViews or trending.
+        // Written behind by the counter; the returned count lags by up to one flush interval.
+        if (!viewDeduplicator.isRepeat(viewerKey, entry.getId())) {
+            profileViewCounter.record(entry.getId());
+            trendingProfiles.record(entry.getId());
+        }
 
         return entry;
     }
 
+    // Most-viewed visible profiles over the decayed trending window, hottest first
+    public List<TrendingProfile> getTrending(Set<String> fields, Integer limit) {
+        int size = Math.max(1, Math.min(limit != null ? limit : 10, trendingProfiles.getMaxResults()));
+        List<TrendingProfiles.Score> scores = trendingProfiles.top(trendingProfiles.getMaxResults() * 2);
+
+        Map<Long, DirectoryListing> listings = new HashMap<>();
+        for (DirectoryListing listing : directoryEntryRepository.findListingsInOrder(fields,
+                scores.stream().map(TrendingProfiles.Score::entryId).toList())) {
+            listings.put(listing.getId(), listing);
+        }
+
+        // Hidden or removed profiles drop out here, hence the over-fetch above
+        List<TrendingProfile> results = new ArrayList<>(size);
+        for (TrendingProfiles.Score score : scores) {
+            DirectoryListing listing = listings.get(score.entryId());
+            if (listing != null && results.size() < size) {
+                results.add(new TrendingProfile(listing, score.score()));
+            }
+        }
+        return results;
+    }
+
+    public ProfileViewStats getProfileViewStats(Long userId, String range) {
+        DirectoryEntry entry = directoryEntryRepository.findByUserId(userId)
+                .orElseThrow(() -> new RuntimeException("You are not in the directory"));
+        return viewAnalytics.stats(entry.getId(), range);
+    }
+
     public DirectoryEntry getUserDirectoryEntry(Long userId) {
         return directoryEntryRepository.findByUserId(userId)
                 .orElse(null);
     }
 
-    public List<DirectoryEntry> getByVerificationBadge(DirectoryEntry.VerificationBadge badge) {
-        return directoryEntryRepository.findByIsVisibleTrueAndVerificationBadge(badge);
-    }
-
-    @Transactional
-    public void incrementProfileViews(Long userId) {
-        directoryEntryRepository.findByUserId(userId).ifPresent(entry -> {
-            entry.setProfileViews(entry.getProfileViews() + 1);
-            directoryEntryRepository.save(entry);
-        });
+    // Newest first from the facet index; falls back to the database while the index is still building
+    public DirectoryPage getByVerificationBadge(DirectoryEntry.VerificationBadge badge, Set<String> fields,
+            String cursor, Integer limit) {
+        DirectoryCursor position = DirectoryCursor.decode(cursor);
+        int pageSize = pageSize(limit);
+        if (facetIndex.isReady()) {
+            return facetIndex.filter(Map.of(DirectoryFacetIndex.BADGE, badge.name()), fields, position, pageSize);
+        }
+        return DirectoryPage.fromKeyset(directoryEntryRepository.findListingPage(fields, badge, null,
+                position.getProfileViews(), position.getId(), pageSize + 1), pageSize);
     }
 
     // ===== Verification Badge Calculation =====
@@ -188,6 +358,20 @@ public class DirectoryService {
 
     // ===== Helper Methods =====
 
+    private int pageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageLimit;
+        }
+        return Math.max(1, Math.min(limit, maxPageLimit));
+    }
+
+    // before: what searches saw of the entry prior to this change (null for a new entry)
+    private DirectoryEntry saveAndPublish(DirectoryEntry entry, DirectoryEntryChangedEvent.Snapshot before) {
+        DirectoryEntry saved = directoryEntryRepository.save(entry);
+        eventPublisher.publishEvent(DirectoryEntryChangedEvent.saved(saved, before));
+        return saved;
+    }
+
     private String buildSearchableText(Long userId, User user) {
         StringBuilder searchText = new StringBuilder();
 
@@ -205,29 +389,32 @@ public class DirectoryService {
             }
         });
 
-        // Find the user's CV to get the correct cvId
-        cvRepository.findByUserId(userId).ifPresent(cv -> {
-            Long cvId = cv.getId();
-
-            List<Education> educationList = educationRepository.findByCvId(cvId);
-            for (Education edu : educationList) {
-                searchText.append(edu.getInstitution()).append(" ");
-                searchText.append(edu.getDegree()).append(" ");
-                if (edu.getFieldOfStudy() != null) {
-                    searchText.append(edu.getFieldOfStudy()).append(" ");
-                }
+        // Education and experience come from the CV document: one lookup instead of three queries
+        cvDocumentService.findByUserId(userId).ifPresent(document -> {
+            JsonNode cv = cvDocumentService.parse(document);
+
+            for (JsonNode edu : cv.path("education")) {
+                appendField(searchText, edu, "institution");
+                appendField(searchText, edu, "degree");
+                appendField(searchText, edu, "fieldOfStudy");
             }
 
-            List<Experience> experienceList = experienceRepository.findByCvId(cvId);
-            for (Experience exp : experienceList) {
-                searchText.append(exp.getCompany()).append(" ");
-                searchText.append(exp.getRole()).append(" ");
+            for (JsonNode exp : cv.path("experience")) {
+                appendField(searchText, exp, "company");
+                appendField(searchText, exp, "role");
             }
         });
 
         return searchText.toString().trim();
     }
 
+    // Missing and JSON null fields are skipped (asText() would turn a null into "null")
+    private void appendField(StringBuilder searchText, JsonNode node, String field) {
+        if (node.hasNonNull(field)) {
+            searchText.append(node.get(field).asText()).append(" ");
+        }
+    }
+
     public boolean isUserInDirectory(Long userId) {
         return directoryEntryRepository.existsByUserId(userId);
     }
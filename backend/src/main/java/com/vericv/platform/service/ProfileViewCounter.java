@@ -0,0 +1,99 @@
+package com.vericv.platform.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Write-behind profile view counts. Views are added to a striped LongAdder per directory entry
+// and written every flush-interval-ms as one batch of relative UPDATEs, so a profile view costs
+// no database round trip and concurrent views are never lost to read-modify-write.
+// Persisted counts lag by at most one flush interval; pending counts are flushed on shutdown.
+@Component
+public class ProfileViewCounter {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfileViewCounter.class);
+
+    private static final String FLUSH_SQL = "UPDATE directory_entries SET profile_views = profile_views + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentHashMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    public ProfileViewCounter(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public void record(Long entryId) {
+        add(entryId, 1);
+    }
+
+    private void add(Long entryId, long views) {
+        LongAdder counter = pending.computeIfAbsent(entryId, id -> new LongAdder());
+        counter.add(views);
+        // The flush retired this counter between lookup and add; move whatever it still holds to the live one.
+        // sumThenReset resets cell by cell, so each view is taken exactly once, here or by the flush.
+        if (pending.get(entryId) != counter) {
+            long stranded = counter.sumThenReset();
+            if (stranded > 0) {
+                add(entryId, stranded);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${vericv.directory.views.flush-interval-ms:5000}")
+    public void flush() {
+        Map<Long, Long> deltas = drain();
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        // Rows are locked in id order, so instances flushing overlapping entries cannot deadlock
+        List<Object[]> batch = new ArrayList<>(deltas.size());
+        new TreeMap<>(deltas).forEach((entryId, views) -> batch.add(new Object[]{views, entryId}));
+        try {
+            // One transaction, so a failed flush applied none of the batch and re-adding every delta is exact
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, batch));
+        } catch (RuntimeException e) {
+            // Keep the counts for the next attempt rather than dropping them
+            deltas.forEach(this::add);
+            log.warn("Profile view flush failed, {} entries retried next interval: {}", deltas.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+        if (!pending.isEmpty()) {
+            log.warn("Profile views for {} entries were not persisted at shutdown", pending.size());
+        }
+    }
+
+    // Takes the accumulated count of every entry. Counters that saw no views since the last
+    // flush are retired so the map only holds recently viewed profiles.
+    private Map<Long, Long> drain() {
+        Map<Long, Long> deltas = new HashMap<>();
+        for (Map.Entry<Long, LongAdder> counter : pending.entrySet()) {
+            long views = counter.getValue().sumThenReset();
+            if (views == 0 && pending.remove(counter.getKey(), counter.getValue())) {
+                views = counter.getValue().sumThenReset();
+            }
+            if (views > 0) {
+                deltas.put(counter.getKey(), views);
+            }
+        }
+        return deltas;
+    }
+}
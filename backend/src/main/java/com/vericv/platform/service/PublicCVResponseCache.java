@@ -0,0 +1,133 @@
+package com.vericv.platform.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.vericv.platform.event.CVChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+// Fully serialized public CV responses held in direct (off-heap) buffers, plain and gzip-compressed,
+// bounded by total bytes. Entries are keyed by CV id and document version: callers look one up with the
+// version and visibility just read from cv_documents, so an edit or a switch to private made on any
+// instance stops the old bytes being served at once. A hit is copied straight to the response with no
+// Jackson work. Committed changes seen on this instance drop the CV's entry early to free its memory.
+@Component
+public class PublicCVResponseCache {
+
+    // Below this a compressed copy is not worth keeping
+    private static final int MIN_GZIP_BYTES = 512;
+
+    public record Entry(Long cvId, Long version, String eTag, long lastModified, ByteBuffer json, ByteBuffer gzip) {
+
+        int weight() {
+            return json.capacity() + (gzip != null ? gzip.capacity() : 0);
+        }
+    }
+
+    private record Key(Long cvId, Long version) {
+    }
+
+    private final Cache<Key, Entry> entries;
+    // The version held for each CV, so a newer version or a change replaces the older bytes
+    private final Map<Long, Long> versionByCvId = new ConcurrentHashMap<>();
+    private final boolean gzipEnabled;
+
+    public PublicCVResponseCache(@Value("${vericv.cv.response-cache.max-mb:64}") long maxMegabytes,
+            @Value("${vericv.cv.response-cache.gzip:true}") boolean gzipEnabled) {
+        this.gzipEnabled = gzipEnabled;
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxMegabytes * 1024 * 1024)
+                .weigher((Key key, Entry entry) -> entry.weight())
+                .removalListener((Key key, Entry entry, RemovalCause cause) -> {
+                    if (key != null && cause != RemovalCause.REPLACED) {
+                        versionByCvId.remove(key.cvId(), key.version());
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    // The response for exactly this version; the caller has checked the CV is still public
+    public Optional<Entry> get(Long cvId, Long version) {
+        return Optional.ofNullable(entries.getIfPresent(new Key(cvId, version)));
+    }
+
+    public void put(Long cvId, Long version, String eTag, long lastModified, String json) {
+        byte[] plain = json.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer compressed = gzipEnabled && plain.length >= MIN_GZIP_BYTES ? offHeap(gzip(plain)) : null;
+        entries.put(new Key(cvId, version), new Entry(cvId, version, eTag, lastModified, offHeap(plain), compressed));
+        // A late put of an older version only costs the next read a miss
+        Long previous = versionByCvId.put(cvId, version);
+        if (previous != null && !previous.equals(version)) {
+            entries.invalidate(new Key(cvId, previous));
+        }
+    }
+
+    // Copies the gzip body if one exists and the client accepts it; returns whether it did
+    public boolean write(Entry entry, boolean acceptGzip, OutputStream out) throws IOException {
+        boolean compressed = acceptGzip && entry.gzip() != null;
+        WritableByteChannel channel = Channels.newChannel(out);
+        ByteBuffer body = (compressed ? entry.gzip() : entry.json()).duplicate();
+        while (body.hasRemaining()) {
+            channel.write(body);
+        }
+        return compressed;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCVChanged(CVChangedEvent event) {
+        invalidate(event.getCvId());
+    }
+
+    public void invalidate(Long cvId) {
+        Long version = versionByCvId.get(cvId);
+        if (version != null) {
+            entries.invalidate(new Key(cvId, version));
+        }
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats stats = entries.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("entries", entries.estimatedSize());
+        result.put("bytes", entries.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L));
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+
+    private static ByteBuffer offHeap(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+        return buffer.asReadOnlyBuffer();
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 3);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,50 @@
+package com.vericv.platform.util;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+
+// Helpers for conditional GET. Endpoints that can check a version without building the body
+// use notModified up front; otherwise returning a ResponseEntity with eTag/lastModified is enough,
+// since Spring MVC answers matching GETs with 304 itself.
+public final class ConditionalRequests {
+
+    private ConditionalRequests() {
+    }
+
+    // RFC 9110: If-None-Match (weak comparison) takes precedence over If-Modified-Since.
+    // eTags lists the tags of every representation (e.g. each content coding) of the current version.
+    public static boolean notModified(WebRequest request, long lastModified, String... eTags) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            for (String tag : ifNoneMatch.split(",")) {
+                String candidate = tag.trim();
+                if (candidate.startsWith("W/")) {
+                    candidate = candidate.substring(2);
+                }
+                if (candidate.equals("*") || Arrays.asList(eTags).contains(candidate)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        String ifModifiedSince = request.getHeader(HttpHeaders.IF_MODIFIED_SINCE);
+        if (ifModifiedSince == null || lastModified < 0) {
+            return false;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.IF_MODIFIED_SINCE, ifModifiedSince);
+        long since = headers.getIfModifiedSince();
+        // HTTP dates have one-second resolution
+        return since >= 0 && lastModified / 1000 <= since / 1000;
+    }
+
+    // Timestamps are stored in server local time
+    public static long epochMillis(LocalDateTime time) {
+        return time == null ? -1 : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,98 @@
+package com.vericv.platform.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// Streaming RFC 4180 reader: comma-separated fields, optionally double-quoted, with "" for a quote
+// inside quotes and line breaks allowed in quoted fields. Holds one record at a time.
+public final class CsvReader {
+
+    private final Reader in;
+    private final int maxRecordChars;
+    private int lookahead = -2;
+    private long line = 1;
+    private long recordLine;
+
+    public CsvReader(Reader in, int maxRecordChars) {
+        this.in = in;
+        this.maxRecordChars = maxRecordChars;
+    }
+
+    // Line the last record returned by next() started on
+    public long recordLine() {
+        return recordLine;
+    }
+
+    // The next record's fields, or null at end of input; blank lines are skipped
+    public List<String> next() throws IOException {
+        int c = read();
+        while (c == '\r' || c == '\n') {
+            c = read();
+        }
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int length = 0;
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        while (true) {
+            if (++length > maxRecordChars) {
+                throw new IOException("CSV record on line " + recordLine + " is longer than " + maxRecordChars
+                        + " characters");
+            }
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field in CSV record on line " + recordLine);
+                }
+                if (c == '"') {
+                    if (peek() == '"') {
+                        read();
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty() && !wasQuoted) {
+                quoted = true;
+                wasQuoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                wasQuoted = false;
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r' && peek() == '\n') {
+                    read();
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        int c = lookahead != -2 ? lookahead : in.read();
+        lookahead = -2;
+        if (c == '\n') {
+            line++;
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (lookahead == -2) {
+            lookahead = in.read();
+        }
+        return lookahead;
+    }
+}
@@ -0,0 +1,134 @@
+package com.vericv.benchmark;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.jdbc.connections.internal.DatasourceConnectionProviderImpl;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Bulk insert throughput with IDENTITY ids (the old mapping) against pooled sequence ids
+// (IdSequences), with the same batching settings as application.yml. Not part of the normal
+// test run (the class name does not match surefire's patterns). Runs on in-memory H2 by default;
+// point it at Postgres to see real round-trip costs:
+//   mvn test -Dtest=IdGenerationBenchmark -Dbenchmark.url=jdbc:postgresql://localhost:5432/vericv_db \
+//       -Dbenchmark.user=postgres -Dbenchmark.password=postgres
+// Lives outside com.vericv.platform so the application's entity scan never picks up its tables.
+class IdGenerationBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(IdGenerationBenchmark.class);
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 20_000);
+    private static final int WARMUP_ROWS = 2_000;
+    private static final int BATCH_SIZE = 50;
+
+    @Entity
+    @Table(name = "benchmark_identity_rows")
+    public static class IdentityRow {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+        String institution;
+        String degree;
+    }
+
+    @Entity
+    @Table(name = "benchmark_sequence_rows")
+    public static class SequenceRow {
+        @Id
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "benchmark_sequence_rows_seq")
+        @SequenceGenerator(name = "benchmark_sequence_rows_seq", sequenceName = "benchmark_sequence_rows_seq",
+                allocationSize = 50)
+        Long id;
+        String institution;
+        String degree;
+    }
+
+    private record Result(String strategy, long millis, long statements) {
+        void log() {
+            log.info(String.format("%-18s %,8d rows %,8d ms %,10d rows/s %,8d statements prepared",
+                    strategy, ROWS, millis, ROWS * 1000L / Math.max(1, millis), statements));
+        }
+    }
+
+    @Test
+    void bulkInsertThroughput() {
+        Result identity = run("IDENTITY", IdentityRow.class, i -> {
+            IdentityRow row = new IdentityRow();
+            row.institution = "University " + i;
+            row.degree = "BSc";
+            return row;
+        });
+        Result sequence = run("SEQUENCE (pooled)", SequenceRow.class, i -> {
+            SequenceRow row = new SequenceRow();
+            row.institution = "University " + i;
+            row.degree = "BSc";
+            return row;
+        });
+
+        identity.log();
+        sequence.log();
+        // Batching turns one statement per row into one per batch plus one per id block
+        assertThat(identity.statements()).isGreaterThanOrEqualTo(ROWS);
+        assertThat(sequence.statements()).isLessThan(ROWS / 10);
+    }
+
+    private Result run(String strategy, Class<?> entity, Function<Integer, Object> rows) {
+        try (SessionFactory sessionFactory = sessionFactory(entity)) {
+            insert(sessionFactory, WARMUP_ROWS, rows);
+
+            Statistics statistics = sessionFactory.getStatistics();
+            statistics.clear();
+            long start = System.nanoTime();
+            insert(sessionFactory, ROWS, rows);
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            return new Result(strategy, millis, statistics.getPrepareStatementCount());
+        }
+    }
+
+    private static void insert(SessionFactory sessionFactory, int count, Function<Integer, Object> rows) {
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            for (int i = 0; i < count; i++) {
+                session.persist(rows.apply(i));
+                if ((i + 1) % 1_000 == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+            session.getTransaction().commit();
+        }
+    }
+
+    private static SessionFactory sessionFactory(Class<?> entity) {
+        Configuration configuration = new Configuration()
+                .addAnnotatedClass(entity)
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, String.valueOf(BATCH_SIZE))
+                .setProperty(AvailableSettings.ORDER_INSERTS, "true")
+                .setProperty(AvailableSettings.GENERATE_STATISTICS, "true");
+        // Hibernate 6.3's native bootstrap ignores the jakarta.persistence.jdbc.* settings, so connections
+        // come from a DataSource rather than the deprecated hibernate.connection.* settings
+        DatasourceConnectionProviderImpl connections = new DatasourceConnectionProviderImpl();
+        connections.setDataSource(new DriverManagerDataSource(
+                System.getProperty("benchmark.url", "jdbc:h2:mem:id-benchmark;DB_CLOSE_DELAY=-1"),
+                System.getProperty("benchmark.user", "sa"),
+                System.getProperty("benchmark.password", "")));
+        configuration.getProperties().put(AvailableSettings.CONNECTION_PROVIDER, connections);
+        return configuration.buildSessionFactory();
+    }
+}
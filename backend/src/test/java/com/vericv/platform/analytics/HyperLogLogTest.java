@@ -0,0 +1,120 @@
+package com.vericv.platform.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.withinPercentage;
+
+class HyperLogLogTest {
+
+    @Test
+    void emptySketchEstimatesZero() {
+        HyperLogLog sketch = new HyperLogLog();
+        assertThat(sketch.isEmpty()).isTrue();
+        assertThat(sketch.estimate()).isZero();
+    }
+
+    // Linear counting range: a few hundred viewers come out within a couple of counts
+    @Test
+    void smallCountsAreNearExact() {
+        assertThat(sketchOf(0, 10).estimate()).isEqualTo(10);
+        assertThat(sketchOf(0, 300).estimate()).isCloseTo(300, withinPercentage(2));
+    }
+
+    @Test
+    void repeatedViewersCountOnce() {
+        HyperLogLog sketch = sketchOf(0, 500);
+        HyperLogLog again = sketchOf(0, 500).merge(sketchOf(0, 500));
+        assertThat(again).isEqualTo(sketch);
+        assertThat(again.estimate()).isEqualTo(sketch.estimate());
+    }
+
+    // Standard error is 1.04 / sqrt(2048), about 2.3%; allow three of those
+    @Test
+    void largeCountsAreWithinErrorBound() {
+        for (int distinct : new int[] {10_000, 100_000, 1_000_000}) {
+            assertThat(sketchOf(0, distinct).estimate()).isCloseTo(distinct, withinPercentage(7));
+        }
+    }
+
+    @Test
+    void mergeIsTheRegisterWiseUnion() {
+        HyperLogLog first = sketchOf(0, 60_000);
+        HyperLogLog second = sketchOf(40_000, 100_000);
+
+        HyperLogLog merged = HyperLogLog.fromBytes(first.toBytes()).merge(second);
+        assertThat(merged).isEqualTo(sketchOf(0, 100_000));
+        assertThat(HyperLogLog.fromBytes(second.toBytes()).merge(first)).isEqualTo(merged);
+        assertThat(merged.estimate()).isCloseTo(100_000, withinPercentage(7));
+    }
+
+    @Test
+    void bytesRoundTrip() {
+        HyperLogLog sketch = sketchOf(0, 1_000);
+        assertThat(HyperLogLog.fromBytes(sketch.toBytes())).isEqualTo(sketch);
+        assertThat(HyperLogLog.fromBytes(null).isEmpty()).isTrue();
+        assertThatThrownBy(() -> HyperLogLog.fromBytes(new byte[16]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void fewViewersAreStoredSparse() {
+        HyperLogLog sketch = sketchOf(0, 3);
+        assertThat(sketch.isSparse()).isTrue();
+        assertThat(sketch.toBytes()).hasSize(9);
+        assertThat(HyperLogLog.fromBytes(sketch.toBytes())).isEqualTo(sketch);
+        assertThat(HyperLogLog.fromBytes(new byte[0]).isEmpty()).isTrue();
+    }
+
+    @Test
+    void manyViewersSwitchToDense() {
+        HyperLogLog sketch = sketchOf(0, 5_000);
+        assertThat(sketch.isSparse()).isFalse();
+        assertThat(sketch.toBytes()).hasSize(HyperLogLog.REGISTERS);
+
+        // Sparse until the limit; the largest sparse form is still smaller than the dense one
+        HyperLogLog growing = new HyperLogLog();
+        for (int i = 0; growing.isSparse(); i++) {
+            assertThat(growing.toBytes().length).isLessThan(HyperLogLog.REGISTERS);
+            growing.offer("viewer-" + i);
+        }
+        assertThat(growing.toBytes()).hasSize(HyperLogLog.REGISTERS);
+    }
+
+    // Sparse sketches give exactly the registers and estimate of the dense form
+    @Test
+    void sparseAndDenseAgree() {
+        HyperLogLog sparse = sketchOf(0, 300);
+        HyperLogLog dense = sketchOf(100_000, 105_000);
+        assertThat(sparse.isSparse()).isTrue();
+        assertThat(dense.isSparse()).isFalse();
+
+        // Dense merged with sparse, either way round, equals the sketch of the union
+        HyperLogLog union = sketchOf(0, 300);
+        for (int i = 100_000; i < 105_000; i++) {
+            union.offer("viewer-" + i);
+        }
+        assertThat(HyperLogLog.fromBytes(dense.toBytes()).merge(sparse)).isEqualTo(union);
+        assertThat(HyperLogLog.fromBytes(sparse.toBytes()).merge(dense)).isEqualTo(union);
+
+        // Two sparse sketches whose union passes the limit
+        HyperLogLog overflow = sketchOf(0, 400).merge(sketchOf(400, 800));
+        assertThat(overflow.isSparse()).isFalse();
+        assertThat(overflow).isEqualTo(sketchOf(0, 800));
+
+        // The same registers held densely
+        HyperLogLog sparseAsDense = HyperLogLog.fromBytes(new byte[HyperLogLog.REGISTERS]).merge(sparse);
+        assertThat(sparseAsDense.isSparse()).isFalse();
+        assertThat(sparseAsDense).isEqualTo(sparse);
+        assertThat(sparseAsDense.estimate()).isEqualTo(sparse.estimate());
+    }
+
+    private static HyperLogLog sketchOf(int from, int to) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = from; i < to; i++) {
+            sketch.offer("viewer-" + i);
+        }
+        return sketch;
+    }
+}
@@ -0,0 +1,126 @@
+package com.vericv.platform.analytics;
+
+import com.vericv.platform.dto.directory.ProfileViewStats;
+import com.vericv.platform.model.ProfileViewBucket;
+import com.vericv.platform.repository.ProfileViewBucketRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProfileViewAnalyticsTest {
+
+    private final ProfileViewBucketRepository repository = mock(ProfileViewBucketRepository.class);
+    private final ProfileViewAnalytics analytics = new ProfileViewAnalytics(repository,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+    @Test
+    void flushRollsViewsIntoHourAndDay() {
+        when(repository.findByEntryIdAndGranularityAndBucketStart(eq(1L), any(), any())).thenReturn(Optional.empty());
+        analytics.record(1L, "alice");
+        analytics.record(1L, "alice");
+        analytics.record(1L, "bob");
+        analytics.flush();
+
+        ArgumentCaptor<ProfileViewBucket> saved = ArgumentCaptor.forClass(ProfileViewBucket.class);
+        verify(repository, times(2)).save(saved.capture());
+        LocalDateTime hour = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.HOURS);
+        assertThat(saved.getAllValues()).extracting(ProfileViewBucket::getGranularity, ProfileViewBucket::getBucketStart)
+                .containsExactly(
+                        tuple(ProfileViewBucket.Granularity.HOUR, hour),
+                        tuple(ProfileViewBucket.Granularity.DAY, hour.truncatedTo(ChronoUnit.DAYS)));
+        for (ProfileViewBucket bucket : saved.getAllValues()) {
+            assertThat(bucket.getViews()).isEqualTo(3);
+            assertThat(HyperLogLog.fromBytes(bucket.getViewerSketch()).estimate()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void deletedEntryLeavesNoPendingViews() {
+        when(repository.findByEntryIdAndGranularityAndBucketStart(any(), any(), any())).thenReturn(Optional.empty());
+        analytics.record(1L, "alice");
+        analytics.record(2L, "bob");
+        analytics.deleteStats(1L);
+        analytics.flush();
+
+        verify(repository).deleteByEntryId(1L);
+        ArgumentCaptor<ProfileViewBucket> saved = ArgumentCaptor.forClass(ProfileViewBucket.class);
+        verify(repository, times(2)).save(saved.capture());
+        assertThat(saved.getAllValues()).extracting(ProfileViewBucket::getEntryId).containsOnly(2L);
+    }
+
+    @Test
+    void hourlyRangeIsZeroFilled() {
+        LocalDateTime hour = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime first = hour.minusHours(23);
+        when(repository.findRange(1L, ProfileViewBucket.Granularity.HOUR, first, hour.plusHours(1)))
+                .thenReturn(List.of(bucket(first, 4, "alice", "bob"), bucket(hour, 2, "alice")));
+
+        ProfileViewStats stats = analytics.stats(1L, "24h");
+
+        assertThat(stats.getGranularity()).isEqualTo("hour");
+        assertThat(stats.getSeries()).hasSize(24);
+        assertThat(stats.getSeries().get(0).getStart()).isEqualTo(first);
+        assertThat(stats.getSeries().get(0).getViews()).isEqualTo(4);
+        assertThat(stats.getSeries().get(0).getUniqueViewers()).isEqualTo(2);
+        assertThat(stats.getSeries().subList(1, 23)).allSatisfy(point -> {
+            assertThat(point.getViews()).isZero();
+            assertThat(point.getUniqueViewers()).isZero();
+        });
+        assertThat(stats.getSeries().get(23).getStart()).isEqualTo(hour);
+        assertThat(stats.getSeries().get(23).getViews()).isEqualTo(2);
+        // Totals union the sketches, so alice counts once
+        assertThat(stats.getTotalViews()).isEqualTo(6);
+        assertThat(stats.getUniqueViewers()).isEqualTo(2);
+    }
+
+    @Test
+    void dailyRangeHasOnePointPerDay() {
+        LocalDateTime today = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.DAYS);
+        when(repository.findRange(1L, ProfileViewBucket.Granularity.DAY, today.minusDays(6), today.plusDays(1)))
+                .thenReturn(List.of());
+
+        ProfileViewStats stats = analytics.stats(1L, "7d");
+
+        assertThat(stats.getGranularity()).isEqualTo("day");
+        assertThat(stats.getSeries()).extracting(ProfileViewStats.Point::getStart)
+                .containsExactly(today.minusDays(6), today.minusDays(5), today.minusDays(4), today.minusDays(3),
+                        today.minusDays(2), today.minusDays(1), today);
+        assertThat(stats.getTotalViews()).isZero();
+        assertThat(stats.getUniqueViewers()).isZero();
+    }
+
+    @Test
+    void invalidRangesAreRejected() {
+        for (String range : new String[] {null, "", "7w", "0h", "169h", "366d"}) {
+            assertThatThrownBy(() -> analytics.stats(1L, range)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    private static ProfileViewBucket bucket(LocalDateTime start, long views, String... viewers) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (String viewer : viewers) {
+            sketch.offer(viewer);
+        }
+        ProfileViewBucket bucket = new ProfileViewBucket(1L, ProfileViewBucket.Granularity.HOUR, start);
+        bucket.setViews(views);
+        bucket.setViewerSketch(sketch.toBytes());
+        return bucket;
+    }
+}
@@ -0,0 +1,103 @@
+package com.vericv.platform.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TrendingProfilesTest {
+
+    private static final long MINUTE = 60_000;
+
+    @Test
+    void heavyHittersSurviveManyOneOffViews() {
+        TrendingProfiles trending = new TrendingProfiles(50, 10, 360);
+        List<Long> views = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            for (int i = 0; i < 200 + 20 * (int) id; i++) {
+                views.add(id);
+            }
+        }
+        for (long id = 1_000; id < 6_000; id++) {
+            views.add(id);
+        }
+        Collections.shuffle(views, new Random(42));
+
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < views.size(); i++) {
+            trending.record(views.get(i));
+            if (i % 500 == 499) {
+                trending.refresh(now);
+            }
+        }
+        trending.refresh(now);
+
+        assertThat(trending.top(10)).extracting(TrendingProfiles.Score::entryId)
+                .containsExactly(10L, 9L, 8L, 7L, 6L, 5L, 4L, 3L, 2L, 1L);
+    }
+
+    @Test
+    void olderViewsDecayByHalfLife() {
+        TrendingProfiles trending = new TrendingProfiles(10, 10, 60);
+        long start = System.currentTimeMillis();
+        recordTimes(trending, 1L, 100);
+        trending.refresh(start);
+        recordTimes(trending, 2L, 80);
+        trending.refresh(start + 60 * MINUTE);
+
+        List<TrendingProfiles.Score> top = trending.top(10);
+        assertThat(top).extracting(TrendingProfiles.Score::entryId).containsExactly(2L, 1L);
+        assertThat(top.get(0).score()).isCloseTo(80, within(1.0));
+        assertThat(top.get(1).score()).isCloseTo(50, within(1.0));
+    }
+
+    @Test
+    void rescaleKeepsScoresFinite() {
+        TrendingProfiles trending = new TrendingProfiles(10, 10, 1);
+        long start = System.currentTimeMillis();
+        recordTimes(trending, 1L, 100);
+        trending.refresh(start);
+        // Far past the rescale threshold (exponent 50 is about 72 half-lives)
+        long later = start + 500 * MINUTE;
+        recordTimes(trending, 2L, 10);
+        trending.refresh(later);
+        recordTimes(trending, 2L, 10);
+        trending.refresh(later);
+
+        List<TrendingProfiles.Score> top = trending.top(10);
+        assertThat(top).extracting(TrendingProfiles.Score::entryId).containsExactly(2L, 1L);
+        assertThat(top.get(0).score()).isCloseTo(20, within(0.01));
+        assertThat(top.get(1).score()).isFinite().isCloseTo(0, within(0.01));
+    }
+
+    @Test
+    void concurrentViewsAreAllCounted() throws Exception {
+        TrendingProfiles trending = new TrendingProfiles(10, 10, 360);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> done = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            done.add(pool.submit(() -> recordTimes(trending, 7L, 10_000)));
+        }
+        for (Future<?> future : done) {
+            future.get();
+        }
+        pool.shutdown();
+        trending.refresh(System.currentTimeMillis());
+
+        assertThat(trending.top(1).get(0).score()).isCloseTo(80_000, within(1.0));
+    }
+
+    private static void recordTimes(TrendingProfiles trending, Long entryId, int times) {
+        for (int i = 0; i < times; i++) {
+            trending.record(entryId);
+        }
+    }
+}
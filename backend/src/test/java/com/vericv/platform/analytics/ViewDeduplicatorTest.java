@@ -0,0 +1,69 @@
+package com.vericv.platform.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ViewDeduplicatorTest {
+
+    private static final long WINDOW = 30 * 60_000;
+
+    @Test
+    void repeatWithinWindowIsCaught() {
+        ViewDeduplicator dedup = new ViewDeduplicator(true, 30, 10_000, 0.01);
+        long now = System.currentTimeMillis();
+
+        assertThat(dedup.isRepeat("alice", 1L, now)).isFalse();
+        assertThat(dedup.isRepeat("alice", 1L, now + 1_000)).isTrue();
+        assertThat(dedup.isRepeat("alice", 2L, now + 1_000)).isFalse();
+        assertThat(dedup.isRepeat("bob", 1L, now + 1_000)).isFalse();
+    }
+
+    @Test
+    void viewsExpireAfterTwoRotations() {
+        ViewDeduplicator dedup = new ViewDeduplicator(true, 30, 10_000, 0.01);
+        long now = System.currentTimeMillis();
+        dedup.isRepeat("alice", 1L, now);
+
+        // First rotation: the view moves to the previous filter and is still a repeat
+        assertThat(dedup.isRepeat("alice", 1L, now + WINDOW)).isTrue();
+        // Second rotation drops it
+        assertThat(dedup.isRepeat("alice", 1L, now + 2 * WINDOW)).isFalse();
+    }
+
+    @Test
+    void longIdleDropsBothFilters() {
+        ViewDeduplicator dedup = new ViewDeduplicator(true, 30, 10_000, 0.01);
+        long now = System.currentTimeMillis();
+        dedup.isRepeat("alice", 1L, now);
+
+        assertThat(dedup.isRepeat("alice", 1L, now + 3 * WINDOW)).isFalse();
+    }
+
+    // Misses are remembered too, so half the sized views go in first and the other half are checked:
+    // the filters fill up to their sizing during the check and stay within the configured rate
+    @Test
+    void falsePositiveRateMatchesSizing() {
+        int views = 100_000;
+        ViewDeduplicator dedup = new ViewDeduplicator(true, 30, views, 0.01);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < views / 2; i++) {
+            dedup.isRepeat("viewer-" + i, 1L, now);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < views / 2; i++) {
+            if (dedup.isRepeat("other-" + i, 1L, now)) {
+                falsePositives++;
+            }
+        }
+        assertThat((double) falsePositives / (views / 2)).isLessThan(0.01);
+    }
+
+    @Test
+    void disabledNeverReportsRepeats() {
+        ViewDeduplicator dedup = new ViewDeduplicator(false, 30, 10_000, 0.01);
+        dedup.isRepeat("alice", 1L);
+        assertThat(dedup.isRepeat("alice", 1L)).isFalse();
+    }
+}
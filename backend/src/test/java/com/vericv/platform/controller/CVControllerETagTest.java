@@ -0,0 +1,100 @@
+package com.vericv.platform.controller;
+
+import com.vericv.platform.dto.cv.CreateCVRequest;
+import com.vericv.platform.model.CV;
+import com.vericv.platform.model.User;
+import com.vericv.platform.repository.UserRepository;
+import com.vericv.platform.service.CVService;
+import com.vericv.platform.service.PublicCVResponseCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Each content coding of a public CV is its own representation with its own strong ETag
+@SpringBootTest
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class CVControllerETagTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CVService cvService;
+
+    @Autowired
+    private PublicCVResponseCache responseCache;
+
+    @Test
+    void encodingsHaveDistinctETagsThatEachRevalidate() throws Exception {
+        CV cv = createCV("etag@example.com");
+        String url = "/api/cv/" + cv.getId();
+        // The first read fills the response cache
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+
+        String plain = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String gzip = mockMvc.perform(get(url).header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(plain).matches("\"cv-" + cv.getId() + "-[0-9]+\"");
+        assertThat(gzip).isNotEqualTo(plain).matches("\"cv-" + cv.getId() + "-[0-9]+-gz\"");
+
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, plain))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, plain));
+        mockMvc.perform(get(url).header(HttpHeaders.ACCEPT_ENCODING, "gzip").header(HttpHeaders.IF_NONE_MATCH, gzip))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, gzip));
+
+        // Without a cached response, revalidation goes by the version columns
+        responseCache.invalidate(cv.getId());
+        mockMvc.perform(get(url).header(HttpHeaders.ACCEPT_ENCODING, "gzip").header(HttpHeaders.IF_NONE_MATCH, gzip))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, gzip));
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, plain))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, plain));
+    }
+
+    @Test
+    void staleETagOfEitherEncodingGetsTheNewVersion() throws Exception {
+        CV cv = createCV("etag-stale@example.com");
+        String url = "/api/cv/" + cv.getId();
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+        String gzip = mockMvc.perform(get(url).header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        CreateCVRequest update = new CreateCVRequest("Staff Engineer", "x".repeat(1_000));
+        update.setIsPublic(true);
+        cvService.updateCV(cv.getId(), cv.getUserId(), update);
+
+        mockMvc.perform(get(url).header(HttpHeaders.ACCEPT_ENCODING, "gzip").header(HttpHeaders.IF_NONE_MATCH, gzip))
+                .andExpect(status().isOk());
+    }
+
+    private CV createCV(String email) {
+        User user = userRepository.save(new User(email, "hash", "Test User"));
+
+        // Long enough to be stored gzip-compressed as well
+        CreateCVRequest request = new CreateCVRequest("Engineer", "Builds things. ".repeat(100));
+        request.setIsPublic(true);
+        return cvService.createCV(user.getId(), request);
+    }
+}
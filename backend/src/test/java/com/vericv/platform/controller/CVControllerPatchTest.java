@@ -0,0 +1,124 @@
+package com.vericv.platform.controller;
+
+import com.vericv.platform.dto.cv.CreateCVRequest;
+import com.vericv.platform.dto.cv.EducationDto;
+import com.vericv.platform.model.CV;
+import com.vericv.platform.model.Education;
+import com.vericv.platform.model.User;
+import com.vericv.platform.repository.CVRepository;
+import com.vericv.platform.repository.EducationRepository;
+import com.vericv.platform.repository.UserRepository;
+import com.vericv.platform.service.CVService;
+import com.vericv.platform.util.JsonMergePatch;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// PATCH endpoints: merge patch semantics, the editable-field whitelist and the version check
+@SpringBootTest
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class CVControllerPatchTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CVRepository cvRepository;
+
+    @Autowired
+    private EducationRepository educationRepository;
+
+    @Autowired
+    private CVService cvService;
+
+    @Test
+    @WithMockUser(username = "patch@example.com")
+    void patchMergesAndBumpsVersion() throws Exception {
+        CV cv = createCV("patch@example.com");
+
+        patchCV(cv.getId(), "{\"version\":0,\"headline\":\"Staff Engineer\",\"summary\":null}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.headline").value("Staff Engineer"))
+                .andExpect(jsonPath("$.isPublic").value(true));
+
+        CV patched = cvRepository.findById(cv.getId()).orElseThrow();
+        assertThat(patched.getHeadline()).isEqualTo("Staff Engineer");
+        assertThat(patched.getSummary()).isNull();
+        assertThat(patched.getIsPublic()).isTrue();
+        assertThat(patched.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    @WithMockUser(username = "whitelist@example.com")
+    void fieldsOutsideTheWhitelistAreRejected() throws Exception {
+        CV cv = createCV("whitelist@example.com");
+
+        patchCV(cv.getId(), "{\"version\":0,\"userId\":999}")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value(startsWith("Field cannot be patched: userId")));
+        patchCV(cv.getId(), "{\"headline\":\"No version\"}")
+                .andExpect(status().isBadRequest());
+
+        CV unchanged = cvRepository.findById(cv.getId()).orElseThrow();
+        assertThat(unchanged.getUserId()).isEqualTo(cv.getUserId());
+        assertThat(unchanged.getHeadline()).isEqualTo("Engineer");
+        assertThat(unchanged.getVersion()).isZero();
+    }
+
+    @Test
+    @WithMockUser(username = "stale@example.com")
+    void staleVersionIsAConflict() throws Exception {
+        CV cv = createCV("stale@example.com");
+        Education education = cvService.addEducation(cv.getId(), cv.getUserId(), education("MIT"));
+
+        patchCV(cv.getId(), "{\"version\":0,\"headline\":\"First\"}").andExpect(status().isOk());
+        patchCV(cv.getId(), "{\"version\":0,\"headline\":\"Second\"}")
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").exists());
+        assertThat(cvRepository.findById(cv.getId()).orElseThrow().getHeadline()).isEqualTo("First");
+
+        mockMvc.perform(patch("/api/cv/education/" + education.getId())
+                        .contentType(JsonMergePatch.MEDIA_TYPE)
+                        .content("{\"version\":1,\"degree\":\"MSc\"}"))
+                .andExpect(status().isConflict());
+        assertThat(educationRepository.findById(education.getId()).orElseThrow().getDegree()).isEqualTo("BSc");
+    }
+
+    private ResultActions patchCV(Long cvId, String body) throws Exception {
+        return mockMvc.perform(patch("/api/cv/" + cvId)
+                .contentType(JsonMergePatch.MEDIA_TYPE)
+                .content(body));
+    }
+
+    private CV createCV(String email) {
+        User user = userRepository.save(new User(email, "hash", "Test User"));
+
+        CreateCVRequest request = new CreateCVRequest();
+        request.setHeadline("Engineer");
+        request.setSummary("Builds things");
+        request.setIsPublic(true);
+        return cvService.createCV(user.getId(), request);
+    }
+
+    private static EducationDto education(String institution) {
+        EducationDto education = new EducationDto();
+        education.setInstitution(institution);
+        education.setDegree("BSc");
+        return education;
+    }
+}
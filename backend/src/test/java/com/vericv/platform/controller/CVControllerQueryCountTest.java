@@ -0,0 +1,134 @@
+package com.vericv.platform.controller;
+
+import com.vericv.platform.dto.cv.CreateCVRequest;
+import com.vericv.platform.dto.cv.EducationDto;
+import com.vericv.platform.dto.cv.ExperienceDto;
+import com.vericv.platform.model.CV;
+import com.vericv.platform.model.User;
+import com.vericv.platform.repository.UserRepository;
+import com.vericv.platform.service.CVService;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Pins the CV read endpoints to at most two SQL statements per request
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cv-query-count;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.vericv.platform.controller.CVControllerQueryCountTest$StatementCounter"
+})
+@AutoConfigureMockMvc
+class CVControllerQueryCountTest {
+
+    private static final int MAX_STATEMENTS = 2;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CVService cvService;
+
+    @Test
+    @WithMockUser(username = "me@example.com")
+    void getMyCV() throws Exception {
+        createCV("me@example.com");
+
+        StatementCounter.reset();
+        mockMvc.perform(get("/api/cv/me"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.education.length()").value(2))
+                .andExpect(jsonPath("$.experience.length()").value(2));
+
+        assertThat(StatementCounter.count()).isLessThanOrEqualTo(MAX_STATEMENTS);
+    }
+
+    @Test
+    void getCVById() throws Exception {
+        CV cv = createCV("by-id@example.com");
+
+        StatementCounter.reset();
+        mockMvc.perform(get("/api/cv/" + cv.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cv.id").value(cv.getId()))
+                .andExpect(jsonPath("$.education.length()").value(2))
+                .andExpect(jsonPath("$.experience.length()").value(2));
+
+        assertThat(StatementCounter.count()).isLessThanOrEqualTo(MAX_STATEMENTS);
+    }
+
+    @Test
+    void getCVByUserId() throws Exception {
+        CV cv = createCV("by-user@example.com");
+
+        StatementCounter.reset();
+        mockMvc.perform(get("/api/cv/user/" + cv.getUserId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cv.userId").value(cv.getUserId()))
+                .andExpect(jsonPath("$.education.length()").value(2))
+                .andExpect(jsonPath("$.experience.length()").value(2));
+
+        assertThat(StatementCounter.count()).isLessThanOrEqualTo(MAX_STATEMENTS);
+    }
+
+    private CV createCV(String email) {
+        User user = userRepository.save(new User(email, "hash", "Test User"));
+
+        CreateCVRequest request = new CreateCVRequest();
+        request.setHeadline("Engineer");
+        request.setIsPublic(true);
+        CV cv = cvService.createCV(user.getId(), request);
+
+        for (String institution : new String[] {"MIT", "Stanford"}) {
+            EducationDto education = new EducationDto();
+            education.setInstitution(institution);
+            education.setDegree("BSc");
+            cvService.addEducation(cv.getId(), user.getId(), education);
+        }
+        for (String company : new String[] {"Acme", "Globex"}) {
+            ExperienceDto experience = new ExperienceDto();
+            experience.setCompany(company);
+            experience.setRole("Developer");
+            cvService.addExperience(cv.getId(), user.getId(), experience);
+        }
+        return cv;
+    }
+
+    // Counts statements prepared on the current thread; background jobs run on their own threads
+    public static class StatementCounter implements StatementInspector {
+
+        private static final long serialVersionUID = 1L;
+
+        private static final ThreadLocal<Integer> COUNT = ThreadLocal.withInitial(() -> 0);
+
+        static void reset() {
+            COUNT.set(0);
+        }
+
+        static int count() {
+            return COUNT.get();
+        }
+
+        @Override
+        public String inspect(String sql) {
+            COUNT.set(COUNT.get() + 1);
+            return sql;
+        }
+    }
+}
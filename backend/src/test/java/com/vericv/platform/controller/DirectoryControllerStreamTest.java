@@ -0,0 +1,62 @@
+package com.vericv.platform.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Invalid NDJSON requests get the same JSON error body as the paged endpoints
+@SpringBootTest
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class DirectoryControllerStreamTest {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void keywordStreamIsRejected() throws Exception {
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/api/directory/search").param("q", "java").accept(NDJSON))
+                        .andReturn()))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.error").value("Streaming is only available for the full listing; omit q"));
+    }
+
+    @Test
+    void unknownBadgeIsRejected() throws Exception {
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/api/directory/filter/badge/diamond").accept(NDJSON))
+                        .andReturn()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid badge level. Use: NONE, BRONZE, SILVER, GOLD, or PLATINUM"));
+    }
+
+    @Test
+    void unknownFieldIsRejected() throws Exception {
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/api/directory/filter/badge/gold")
+                        .param("fields", "password").accept(NDJSON)).andReturn()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+    }
+
+    @Test
+    void validRequestStreams() throws Exception {
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/api/directory/search").accept(NDJSON))
+                        .andExpect(request().asyncStarted())
+                        .andReturn()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(NDJSON));
+    }
+}
@@ -0,0 +1,217 @@
+package com.vericv.platform.search;
+
+import com.vericv.platform.dto.directory.DirectoryCursor;
+import com.vericv.platform.dto.directory.DirectoryListing;
+import com.vericv.platform.dto.directory.DirectoryPage;
+import com.vericv.platform.dto.directory.FacetedPage;
+import com.vericv.platform.event.DirectoryEntryChangedEvent;
+import com.vericv.platform.model.DirectoryEntry;
+import com.vericv.platform.model.DirectoryEntry.VerificationBadge;
+import com.vericv.platform.repository.DirectoryEntryRepository;
+import jakarta.persistence.Tuple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DirectoryFacetIndexTest {
+
+    private static final Set<String> FIELDS = Set.of("id", "profileViews");
+
+    private final DirectoryEntryRepository repository = mock(DirectoryEntryRepository.class);
+    private final DirectoryFacetIndex index = new DirectoryFacetIndex(repository, 2, 3);
+
+    // entry id -> current employers, served to the index as findCurrentEmployers rows
+    private final Map<Long, List<String>> employers = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        when(repository.findCurrentEmployers(anyCollection())).thenAnswer(invocation -> {
+            List<Object[]> rows = new ArrayList<>();
+            for (Long id : invocation.<Collection<Long>>getArgument(0)) {
+                for (String company : employers.getOrDefault(id, List.of())) {
+                    rows.add(new Object[]{id, company});
+                }
+            }
+            return rows;
+        });
+        when(repository.findListingsInOrder(any(), anyList())).thenAnswer(invocation ->
+                invocation.<List<Long>>getArgument(1).stream().map(DirectoryFacetIndexTest::listing).toList());
+    }
+
+    @Test
+    void filtersAreIntersected() {
+        build(row(1L, VerificationBadge.GOLD, "Berlin", "Acme"),
+                row(2L, VerificationBadge.GOLD, "Paris", "Acme"),
+                row(3L, VerificationBadge.SILVER, "berlin ", "Acme"),
+                row(4L, VerificationBadge.GOLD, " BERLIN", "Globex"),
+                row(5L, VerificationBadge.GOLD, "Berlin", null));
+
+        assertThat(ids(query("GOLD", "berlin", null))).containsExactly(5L, 4L, 1L);
+        assertThat(ids(query("gold", "Berlin", "acme"))).containsExactly(1L);
+        assertThat(ids(query(null, null, "ACME"))).containsExactly(3L, 2L, 1L);
+        assertThat(query("GOLD", "Tokyo", null).getTotal()).isZero();
+        assertThat(query(null, null, null).getTotal()).isEqualTo(5);
+    }
+
+    @Test
+    void facetsAreCountedAgainstTheOtherFilters() {
+        build(row(1L, VerificationBadge.GOLD, "Berlin", "Acme"),
+                row(2L, VerificationBadge.GOLD, "Paris", "Acme"),
+                row(3L, VerificationBadge.SILVER, "Berlin", "Acme"),
+                row(4L, VerificationBadge.GOLD, "Berlin", "Globex"));
+
+        Map<String, Map<String, Integer>> facets = query("GOLD", "Berlin", null).getFacets();
+
+        // The selected badge still shows the other badges available in Berlin
+        assertThat(facets.get(DirectoryFacetIndex.BADGE))
+                .containsExactly(entry("GOLD", 2), entry("SILVER", 1));
+        assertThat(facets.get(DirectoryFacetIndex.LOCATION))
+                .containsExactly(entry("Berlin", 2), entry("Paris", 1));
+        assertThat(facets.get(DirectoryFacetIndex.EMPLOYER))
+                .containsExactly(entry("Acme", 1), entry("Globex", 1));
+    }
+
+    @Test
+    void onlyTheTopValuesAreReturned() {
+        build(row(1L, VerificationBadge.GOLD, "Berlin", null),
+                row(2L, VerificationBadge.GOLD, "Berlin", null),
+                row(3L, VerificationBadge.GOLD, "Berlin", null),
+                row(4L, VerificationBadge.SILVER, "Paris", null),
+                row(5L, VerificationBadge.SILVER, "Paris", null),
+                row(6L, VerificationBadge.SILVER, "Tokyo", null),
+                row(7L, VerificationBadge.GOLD, "Madrid", null));
+
+        assertThat(query(null, null, null).getFacets().get(DirectoryFacetIndex.LOCATION))
+                .containsExactly(entry("Berlin", 3), entry("Paris", 2));
+
+        // Berlin leads overall but has no silver members; ties go to the first value alphabetically
+        assertThat(query("SILVER", null, null).getFacets().get(DirectoryFacetIndex.LOCATION))
+                .containsExactly(entry("Paris", 2), entry("Tokyo", 1));
+        assertThat(query("GOLD", null, null).getFacets().get(DirectoryFacetIndex.LOCATION))
+                .containsExactly(entry("Berlin", 3), entry("Madrid", 1));
+    }
+
+    @Test
+    void cursorPagesNewestFirst() {
+        build(row(1L, VerificationBadge.GOLD, null, null),
+                row(2L, VerificationBadge.SILVER, null, null),
+                row(3L, VerificationBadge.GOLD, null, null),
+                row(4L, VerificationBadge.GOLD, null, null),
+                row(5L, VerificationBadge.GOLD, null, null),
+                row(6L, VerificationBadge.GOLD, null, null),
+                row(7L, VerificationBadge.GOLD, null, null));
+
+        List<Long> seen = new ArrayList<>();
+        DirectoryCursor cursor = DirectoryCursor.first();
+        int pages = 0;
+        do {
+            DirectoryPage page = index.filter(Map.of(DirectoryFacetIndex.BADGE, "GOLD"), FIELDS, cursor, 2);
+            seen.addAll(ids(page.getResults()));
+            cursor = page.getNext() == null ? null : DirectoryCursor.decode(page.getNext());
+            pages++;
+        } while (cursor != null);
+
+        assertThat(seen).containsExactly(7L, 6L, 5L, 4L, 3L, 1L);
+        assertThat(pages).isEqualTo(3);
+    }
+
+    @Test
+    void changesAreAppliedInPlace() {
+        build(row(1L, VerificationBadge.GOLD, "Berlin", null),
+                row(2L, VerificationBadge.GOLD, "Berlin", null));
+
+        DirectoryEntry moved = directoryEntry(1L, VerificationBadge.SILVER, "Paris");
+        employers.put(1L, List.of("Initech"));
+        index.onEntryChanged(DirectoryEntryChangedEvent.saved(moved, null));
+        DirectoryEntry hidden = directoryEntry(2L, VerificationBadge.GOLD, "Berlin");
+        hidden.setIsVisible(false);
+        index.onEntryChanged(DirectoryEntryChangedEvent.saved(hidden, null));
+        index.onEntryChanged(DirectoryEntryChangedEvent.saved(directoryEntry(9L, VerificationBadge.GOLD, "Berlin"), null));
+
+        FacetedPage page = query(null, null, null);
+        assertThat(ids(page)).containsExactly(9L, 1L);
+        assertThat(page.getFacets().get(DirectoryFacetIndex.LOCATION))
+                .containsExactly(entry("Berlin", 1), entry("Paris", 1));
+        assertThat(page.getFacets().get(DirectoryFacetIndex.EMPLOYER)).containsExactly(entry("Initech", 1));
+        assertThat(ids(query("GOLD", "Berlin", null))).containsExactly(9L);
+
+        index.onEntryChanged(DirectoryEntryChangedEvent.removed(moved));
+        assertThat(ids(query(null, null, null))).containsExactly(9L);
+        assertThat(query(null, null, null).getFacets().get(DirectoryFacetIndex.LOCATION))
+                .containsExactly(entry("Berlin", 1));
+    }
+
+    @Test
+    void notReadyUntilBuilt() {
+        assertThat(index.isReady()).isFalse();
+        build(row(1L, VerificationBadge.GOLD, null, null));
+        assertThat(index.isReady()).isTrue();
+    }
+
+    private void build(Object[]... rows) {
+        List<Object[]> facetRows = new ArrayList<>();
+        for (Object[] row : rows) {
+            facetRows.add(new Object[]{row[0], row[1], row[2]});
+            if (row[3] != null) {
+                employers.put((Long) row[0], List.of((String) row[3]));
+            }
+        }
+        // Served in batches of 3 after the last id seen, like the repository query
+        when(repository.findVisibleFacetRows(anyLong(), any())).thenAnswer(invocation -> {
+            long after = invocation.getArgument(0);
+            return facetRows.stream().filter(row -> (Long) row[0] > after).limit(3).toList();
+        });
+        index.build();
+    }
+
+    private FacetedPage query(String badge, String location, String employer) {
+        Map<String, String> filters = new HashMap<>();
+        filters.put(DirectoryFacetIndex.BADGE, badge);
+        filters.put(DirectoryFacetIndex.LOCATION, location);
+        filters.put(DirectoryFacetIndex.EMPLOYER, employer);
+        return index.query(filters, FIELDS, DirectoryCursor.first(), 20);
+    }
+
+    private static List<Long> ids(FacetedPage page) {
+        return ids(page.getResults());
+    }
+
+    private static List<Long> ids(List<DirectoryListing> listings) {
+        return listings.stream().map(DirectoryListing::getId).toList();
+    }
+
+    private static Object[] row(Long id, VerificationBadge badge, String location, String employer) {
+        return new Object[]{id, badge, location, employer};
+    }
+
+    private static DirectoryListing listing(Long id) {
+        Tuple tuple = mock(Tuple.class);
+        when(tuple.get("id")).thenReturn(id);
+        when(tuple.get("profileViews")).thenReturn(0);
+        return DirectoryListing.fromTuple(tuple, FIELDS);
+    }
+
+    private static DirectoryEntry directoryEntry(Long id, VerificationBadge badge, String location) {
+        DirectoryEntry entry = new DirectoryEntry();
+        entry.setId(id);
+        entry.setVerificationBadge(badge);
+        entry.setLocation(location);
+        entry.setIsVisible(true);
+        return entry;
+    }
+}
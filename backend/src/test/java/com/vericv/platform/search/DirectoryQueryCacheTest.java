@@ -0,0 +1,130 @@
+package com.vericv.platform.search;
+
+import com.vericv.platform.dto.directory.DirectoryListing;
+import com.vericv.platform.dto.directory.DirectoryPage;
+import com.vericv.platform.event.DirectoryEntryChangedEvent;
+import com.vericv.platform.model.DirectoryEntry;
+import jakarta.persistence.Tuple;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DirectoryQueryCacheTest {
+
+    private static final Set<String> FIELDS = Set.of("id");
+
+    private final DirectoryQueryCache cache = new DirectoryQueryCache(100, 60);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void repeatedSearchIsServedFromCache() {
+        search("java", false, 1L);
+        search(" JAVA ", false, 1L);
+        search("java", true, 1L);
+
+        assertThat(loads).hasValue(2);
+        assertThat(cache.stats()).containsEntry("hits", 1L).containsEntry("misses", 2L);
+    }
+
+    @Test
+    void editDropsOnlyPagesListingTheEntry() {
+        search("java", false, 1L, 2L);
+        search("python", false, 3L);
+        search(null, false, 1L, 2L, 3L);
+        loads.set(0);
+
+        // A CV edit that leaves the entry's searchable text alone (e.g. a new description)
+        DirectoryEntry entry = entry(1L, "Ada Lovelace", "java engineer");
+        cache.onEntryChanged(DirectoryEntryChangedEvent.saved(entry, DirectoryEntryChangedEvent.Snapshot.of(entry)));
+
+        search("java", false, 1L, 2L);
+        search("python", false, 3L);
+        search(null, false, 1L, 2L, 3L);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void newTextDropsKeywordPagesItMayMatch() {
+        search("python", false, 3L);
+        search("rust", false, 4L);
+        search("pythn", true, 3L);
+        search(null, false, 3L, 4L);
+        loads.set(0);
+
+        // Entry 1 is not on any page, but now mentions python
+        DirectoryEntry entry = entry(1L, "Ada Lovelace", "java engineer");
+        DirectoryEntryChangedEvent.Snapshot before = DirectoryEntryChangedEvent.Snapshot.of(entry);
+        entry.setSearchableText("java python engineer");
+        cache.onEntryChanged(DirectoryEntryChangedEvent.saved(entry, before));
+
+        search("python", false, 1L, 3L);
+        search("pythn", true, 1L, 3L);
+        search("rust", false, 4L);
+        search(null, false, 3L, 4L);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void joiningOrLeavingDropsBrowsePages() {
+        search(null, false, 3L);
+        search("rust", false, 4L);
+        loads.set(0);
+
+        DirectoryEntry entry = entry(1L, "Ada Lovelace", "java engineer");
+        cache.onEntryChanged(DirectoryEntryChangedEvent.saved(entry, null));
+        search(null, false, 1L, 3L);
+        search("rust", false, 4L);
+        assertThat(loads).hasValue(1);
+
+        cache.onEntryChanged(DirectoryEntryChangedEvent.removed(entry));
+        search(null, false, 3L);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void hiddenEntriesDoNotInvalidate() {
+        search(null, false, 3L);
+        search("java", false, 3L);
+        loads.set(0);
+
+        DirectoryEntry entry = entry(1L, "Ada Lovelace", "java engineer");
+        entry.setIsVisible(false);
+        DirectoryEntryChangedEvent.Snapshot before = DirectoryEntryChangedEvent.Snapshot.of(entry);
+        entry.setSearchableText("java python engineer");
+        cache.onEntryChanged(DirectoryEntryChangedEvent.saved(entry, before));
+
+        search(null, false, 3L);
+        search("java", false, 3L);
+        assertThat(loads).hasValue(0);
+    }
+
+    private void search(String keyword, boolean fuzzy, Long... ids) {
+        DirectoryPage page = cache.get(keyword, fuzzy, FIELDS, null, 20, () -> {
+            loads.incrementAndGet();
+            return new DirectoryPage(Arrays.stream(ids).map(DirectoryQueryCacheTest::listing).toList(), null);
+        });
+        assertThat(page.getResults()).extracting(DirectoryListing::getId).isEqualTo(List.of(ids));
+    }
+
+    private static DirectoryListing listing(Long id) {
+        Tuple tuple = mock(Tuple.class);
+        when(tuple.get("id")).thenReturn(id);
+        return DirectoryListing.fromTuple(tuple, FIELDS);
+    }
+
+    private static DirectoryEntry entry(Long id, String fullName, String searchableText) {
+        DirectoryEntry entry = new DirectoryEntry();
+        entry.setId(id);
+        entry.setFullName(fullName);
+        entry.setSearchableText(searchableText);
+        entry.setIsVisible(true);
+        return entry;
+    }
+}
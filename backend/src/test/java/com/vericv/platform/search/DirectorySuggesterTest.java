@@ -0,0 +1,79 @@
+package com.vericv.platform.search;
+
+import com.vericv.platform.repository.DirectoryEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DirectorySuggesterTest {
+
+    private final DirectoryEntryRepository repository = mock(DirectoryEntryRepository.class);
+    private final DirectorySuggester suggester = new DirectorySuggester(repository, 3, 2);
+
+    @BeforeEach
+    void setUp() {
+        when(repository.findNameSuggestionWeights()).thenReturn(rows("Ada Lovelace", 4L));
+        when(repository.findCompanySuggestionWeights()).thenReturn(rows("Analytical Engines", 9L));
+        when(repository.findRoleSuggestionWeights()).thenReturn(rows("Analyst", 2L, "Architect", 1L));
+        when(repository.findInstitutionSuggestionWeights()).thenReturn(List.of());
+        when(repository.findDegreeSuggestionWeights()).thenReturn(rows("BSc Mathematics", 3L));
+    }
+
+    @Test
+    void nothingIsSuggestedBeforeTheFirstBuild() {
+        assertThat(suggester.suggest("a", 10)).isEmpty();
+    }
+
+    @Test
+    void suggestsEveryTermTypeByWeight() {
+        suggester.rebuild();
+
+        List<SuggestionIndex.Term> results = suggester.suggest("a", 10);
+        assertThat(results).extracting(SuggestionIndex.Term::getLabel)
+                .containsExactly("Analytical Engines", "Ada Lovelace", "Analyst");
+        assertThat(results).extracting(SuggestionIndex.Term::getType).containsExactly("company", "name", "role");
+        assertThat(suggester.suggest("math", 10)).extracting(SuggestionIndex.Term::getType).containsExactly("degree");
+    }
+
+    @Test
+    void limitIsClampedToMaxResults() {
+        suggester.rebuild();
+
+        assertThat(suggester.suggest("a", 100)).hasSize(3);
+        assertThat(suggester.suggest("a", 0)).hasSize(1);
+    }
+
+    @Test
+    void rebuildSwapsInTheNewTerms() {
+        suggester.rebuild();
+        when(repository.findNameSuggestionWeights()).thenReturn(rows("Alan Turing", 20L));
+        suggester.rebuild();
+
+        assertThat(suggester.suggest("a", 1)).extracting(SuggestionIndex.Term::getLabel).containsExactly("Alan Turing");
+        assertThat(suggester.suggest("love", 10)).isEmpty();
+    }
+
+    @Test
+    void failedRebuildKeepsThePreviousIndex() {
+        suggester.rebuild();
+        when(repository.findRoleSuggestionWeights()).thenThrow(new IllegalStateException("database down"));
+        suggester.rebuild();
+
+        assertThat(suggester.suggest("love", 10)).extracting(SuggestionIndex.Term::getLabel)
+                .containsExactly("Ada Lovelace");
+    }
+
+    private static List<Object[]> rows(Object... labelsAndWeights) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < labelsAndWeights.length; i += 2) {
+            rows.add(new Object[]{labelsAndWeights[i], labelsAndWeights[i + 1]});
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,93 @@
+package com.vericv.platform.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestionIndexTest {
+
+    @Test
+    void matchesTheStartOfAnyWord() {
+        SuggestionIndex index = SuggestionIndex.build(List.of(
+                term("Ada Lovelace", "name", 5),
+                term("Grace  Hopper", "name", 3)), 10, 256);
+
+        assertThat(labels(index.lookup("love", 10))).containsExactly("Ada Lovelace");
+        assertThat(labels(index.lookup(" ADA ", 10))).containsExactly("Ada Lovelace");
+        assertThat(labels(index.lookup("grace hop", 10))).containsExactly("Grace  Hopper");
+        assertThat(index.lookup("velace", 10)).isEmpty();
+        assertThat(index.lookup("opper", 10)).isEmpty();
+    }
+
+    @Test
+    void sameLabelAndTypeAreMerged() {
+        SuggestionIndex index = SuggestionIndex.build(List.of(
+                term("Acme", "company", 3),
+                term(" ACME ", "company", 4),
+                term("Acme", "institution", 5),
+                term("Acorn", "company", 6)), 10, 256);
+
+        List<SuggestionIndex.Term> results = index.lookup("ac", 10);
+        assertThat(labels(results)).containsExactly("Acme", "Acorn", "Acme");
+        assertThat(results).extracting(SuggestionIndex.Term::getType)
+                .containsExactly("company", "company", "institution");
+        assertThat(results).extracting(SuggestionIndex.Term::getWeight).containsExactly(7L, 6L, 5L);
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void heavyPrefixesMatchAFullScan() {
+        List<SuggestionIndex.Term> terms = new ArrayList<>();
+        String[] words = {"java", "javascript", "jakarta", "kotlin", "go", "golang", "groovy"};
+        for (int i = 0; i < 200; i++) {
+            terms.add(term(words[i % words.length] + " " + words[(i / words.length) % words.length] + " " + i,
+                    i % 2 == 0 ? "role" : "company", (i * 37) % 101));
+        }
+        // scanLimit 4 materializes nearly every node; 10_000 never does
+        SuggestionIndex materialized = SuggestionIndex.build(terms, 8, 4);
+        SuggestionIndex scanned = SuggestionIndex.build(terms, 8, 10_000);
+
+        for (String prefix : List.of("j", "ja", "jav", "java ", "java j", "g", "go", "gol", "k", "1", "19", "groovy go")) {
+            assertThat(labels(materialized.lookup(prefix, 8)))
+                    .as(prefix)
+                    .isNotEmpty()
+                    .isEqualTo(labels(scanned.lookup(prefix, 8)));
+        }
+    }
+
+    @Test
+    void emptyAndSingleCharacterPrefixes() {
+        SuggestionIndex index = SuggestionIndex.build(List.of(
+                term("Berlin", "institution", 1),
+                term("Bob Builder", "name", 4),
+                term("Alice Brown", "name", 2),
+                term("Carol", "name", 9)), 10, 2);
+
+        assertThat(index.lookup("", 10)).isEmpty();
+        assertThat(index.lookup("   ", 10)).isEmpty();
+        assertThat(labels(index.lookup("b", 10))).containsExactly("Bob Builder", "Alice Brown", "Berlin");
+        assertThat(labels(index.lookup("B", 2))).containsExactly("Bob Builder", "Alice Brown");
+        assertThat(index.lookup("z", 10)).isEmpty();
+    }
+
+    @Test
+    void equalWeightsAreOrderedByLabel() {
+        SuggestionIndex index = SuggestionIndex.build(List.of(
+                term("Mallory", "name", 2),
+                term("Mabel", "name", 2),
+                term("Max", "name", 3)), 10, 256);
+
+        assertThat(labels(index.lookup("ma", 10))).containsExactly("Max", "Mabel", "Mallory");
+    }
+
+    private static SuggestionIndex.Term term(String label, String type, long weight) {
+        return new SuggestionIndex.Term(label, type, weight);
+    }
+
+    private static List<String> labels(List<SuggestionIndex.Term> terms) {
+        return terms.stream().map(SuggestionIndex.Term::getLabel).toList();
+    }
+}
@@ -0,0 +1,193 @@
+package com.vericv.platform.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vericv.platform.model.CV;
+import com.vericv.platform.model.Education;
+import com.vericv.platform.model.User;
+import com.vericv.platform.repository.CVRepository;
+import com.vericv.platform.repository.EducationRepository;
+import com.vericv.platform.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doAnswer;
+
+// Batches of two, so a file of a few records spans several batches
+@SpringBootTest(properties = "vericv.cv.import.batch-size=2")
+@ActiveProfiles("h2")
+class CVBulkImporterTest {
+
+    @Autowired
+    private CVBulkImporter importer;
+
+    @Autowired
+    private CVRepository cvRepository;
+
+    @Autowired
+    private EducationRepository educationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @SpyBean
+    private CVDocumentService cvDocumentService;
+
+    @Test
+    void csvWithQuotedCellsIsImported() throws IOException {
+        String csv = "email,fullName,headline,summary,education\r\n"
+                + "csv-ada@example.com,\"Lovelace, Ada\",Engineer,\"Writes \"\"notes\"\"\r\non engines\","
+                + "\"[{\"\"institution\"\":\"\"London, UK\"\",\"\"degree\"\":\"\"BSc\"\"}]\"\r\n"
+                + "csv-bob@example.com,Bob,Developer,,\r\n";
+        StringWriter rejects = new StringWriter();
+
+        CVBulkImporter.Result result = importer.importRecords(stream(csv), CVBulkImporter.Format.CSV, rejects);
+
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(rejects.toString()).isEmpty();
+        User ada = userRepository.findByEmail("csv-ada@example.com").orElseThrow();
+        assertThat(ada.getFullName()).isEqualTo("Lovelace, Ada");
+        assertThat(ada.getPasswordHash()).isEqualTo(CVBulkImporter.NO_PASSWORD);
+        CV cv = cvRepository.findByUserId(ada.getId()).orElseThrow();
+        assertThat(cv.getSummary()).isEqualTo("Writes \"notes\"\r\non engines");
+        assertThat(educationRepository.findByCvId(cv.getId())).extracting(Education::getInstitution)
+                .containsExactly("London, UK");
+    }
+
+    @Test
+    void csvRowWithWrongColumnCountIsRejected() throws IOException {
+        String csv = "email,fullName,headline\n"
+                + "cols-1@example.com,One,Engineer\n"
+                + "cols-2@example.com,Two,Engineer,extra\n"
+                + "cols-3@example.com,Three\n";
+        StringWriter rejects = new StringWriter();
+
+        CVBulkImporter.Result result = importer.importRecords(stream(csv), CVBulkImporter.Format.CSV, rejects);
+
+        assertThat(result.records()).isEqualTo(3);
+        assertThat(result.imported()).isEqualTo(1);
+        List<JsonNode> rejected = parse(rejects);
+        assertThat(rejected).extracting(reject -> reject.get("line").asLong()).containsExactly(3L, 4L);
+        assertThat(rejected).extracting(reject -> reject.get("error").asText())
+                .containsExactly("Expected 3 columns, found 4", "Expected 3 columns, found 2");
+        assertThat(rejected.get(0).get("record").get("email").asText()).isEqualTo("cols-2@example.com");
+    }
+
+    @Test
+    void oversizeRecordIsRejected() throws IOException {
+        String jsonl = record("big-1@example.com") + "\n"
+                + "{\"email\":\"big-2@example.com\",\"summary\":\"" + "x".repeat(1_000_000) + "\"}\n"
+                + record("big-3@example.com") + "\n";
+        StringWriter rejects = new StringWriter();
+
+        CVBulkImporter.Result result = importer.importRecords(stream(jsonl), CVBulkImporter.Format.JSONL, rejects);
+
+        assertThat(result.imported()).isEqualTo(2);
+        List<JsonNode> rejected = parse(rejects);
+        assertThat(rejected).hasSize(1);
+        assertThat(rejected.get(0).get("line").asLong()).isEqualTo(2);
+        assertThat(rejected.get(0).get("error").asText()).isEqualTo("Record is longer than 1000000 characters");
+        assertThat(rejected.get(0).get("record").asText()).hasSize(1_000_001).endsWith("…");
+    }
+
+    @Test
+    void repeatedEmailIsRejectedWithinAndAcrossBatches() throws IOException {
+        // Lines 1-2 and 3-4 are batches; line 2 repeats line 1, line 4 repeats the committed line 1
+        String jsonl = record("dup-1@example.com") + "\n"
+                + record("dup-1@example.com") + "\n"
+                + record("dup-2@example.com") + "\n"
+                + record("dup-1@example.com") + "\n";
+        StringWriter rejects = new StringWriter();
+
+        CVBulkImporter.Result result = importer.importRecords(stream(jsonl), CVBulkImporter.Format.JSONL, rejects);
+
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(parse(rejects)).extracting(reject -> reject.get("error").asText()).containsExactly(
+                "Email appears earlier in the file: dup-1@example.com",
+                "User already exists: dup-1@example.com");
+        assertThat(userRepository.findExistingEmails(List.of("dup-1@example.com", "dup-2@example.com")))
+                .hasSize(2);
+    }
+
+    @Test
+    void invalidRecordRejectsOnlyItself() throws IOException {
+        String jsonl = record("valid-1@example.com") + "\n"
+                + "{\"email\":\"not-an-email\",\"fullName\":\"Bad\",\"headline\":\"Engineer\"}\n"
+                + "{not json\n"
+                + record("valid-2@example.com") + "\n";
+        StringWriter rejects = new StringWriter();
+
+        CVBulkImporter.Result result = importer.importRecords(stream(jsonl), CVBulkImporter.Format.JSONL, rejects);
+
+        assertThat(result.imported()).isEqualTo(2);
+        List<JsonNode> rejected = parse(rejects);
+        assertThat(rejected).extracting(reject -> reject.get("line").asLong()).containsExactly(2L, 3L);
+        assertThat(rejected.get(0).get("error").asText()).isEqualTo("email: Email should be valid");
+        assertThat(rejected.get(1).get("error").asText()).startsWith("Invalid record: ");
+        assertThat(userRepository.findExistingEmails(List.of("valid-1@example.com", "valid-2@example.com")))
+                .hasSize(2);
+    }
+
+    // A record that validates but fails to store rolls back its batch, which is then stored record by record
+    @Test
+    void recordFailingToStoreRejectsOnlyItself() throws IOException {
+        doAnswer(invocation -> {
+            List<CV> cvs = invocation.getArgument(0);
+            if (cvs.stream().anyMatch(cv -> cv.getHeadline().equals("Unstorable"))) {
+                throw new IllegalStateException("document insert failed");
+            }
+            return invocation.callRealMethod();
+        }).when(cvDocumentService).createAll(anyList(), anyMap(), anyMap());
+
+        String jsonl = record("store-1@example.com") + "\n"
+                + record("store-2@example.com").replace("Engineer", "Unstorable") + "\n"
+                + record("store-3@example.com") + "\n";
+        StringWriter rejects = new StringWriter();
+
+        CVBulkImporter.Result result = importer.importRecords(stream(jsonl), CVBulkImporter.Format.JSONL, rejects);
+
+        assertThat(result.imported()).isEqualTo(2);
+        List<JsonNode> rejected = parse(rejects);
+        assertThat(rejected).hasSize(1);
+        assertThat(rejected.get(0).get("line").asLong()).isEqualTo(2);
+        assertThat(rejected.get(0).get("error").asText()).isEqualTo("Could not store record: document insert failed");
+        assertThat(userRepository.findExistingEmails(
+                List.of("store-1@example.com", "store-2@example.com", "store-3@example.com")))
+                .containsExactlyInAnyOrder("store-1@example.com", "store-3@example.com");
+    }
+
+    private static String record(String email) {
+        return "{\"email\":\"" + email + "\",\"fullName\":\"Test User\",\"headline\":\"Engineer\","
+                + "\"experience\":[{\"company\":\"Acme\",\"role\":\"Developer\"}]}";
+    }
+
+    private static ByteArrayInputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<JsonNode> parse(StringWriter rejects) throws IOException {
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : rejects.toString().split("\n")) {
+            if (!line.isEmpty()) {
+                lines.add(objectMapper.readTree(line));
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,116 @@
+package com.vericv.platform.service;
+
+import com.vericv.platform.dto.cv.CVDocumentRequest;
+import com.vericv.platform.dto.cv.CreateCVRequest;
+import com.vericv.platform.dto.cv.EducationDto;
+import com.vericv.platform.dto.cv.ExperienceDto;
+import com.vericv.platform.model.CV;
+import com.vericv.platform.model.Education;
+import com.vericv.platform.model.Experience;
+import com.vericv.platform.model.User;
+import com.vericv.platform.repository.CVRepository;
+import com.vericv.platform.repository.EducationRepository;
+import com.vericv.platform.repository.ExperienceRepository;
+import com.vericv.platform.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Create paths on the @Version entities: a new CV or entry must be inserted once, not merged as a copy
+@SpringBootTest
+@ActiveProfiles("h2")
+class CVServiceCreateTest {
+
+    @Autowired
+    private CVService cvService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CVRepository cvRepository;
+
+    @Autowired
+    private EducationRepository educationRepository;
+
+    @Autowired
+    private ExperienceRepository experienceRepository;
+
+    @Test
+    void createCVAndEntries() {
+        User user = userRepository.save(new User("create@example.com", "hash", "Test User"));
+
+        CreateCVRequest request = new CreateCVRequest();
+        request.setHeadline("Engineer");
+        CV cv = cvService.createCV(user.getId(), request);
+        assertThat(cv.getId()).isNotNull();
+        assertThat(cv.getVersion()).isZero();
+        assertThat(cvRepository.findByUserId(user.getId())).get().extracting(CV::getId).isEqualTo(cv.getId());
+
+        Education education = cvService.addEducation(cv.getId(), user.getId(), education("MIT"));
+        assertThat(education.getId()).isNotNull();
+        assertThat(education.getVersion()).isZero();
+
+        Experience experience = cvService.addExperience(cv.getId(), user.getId(), experience("Acme"));
+        assertThat(experience.getId()).isNotNull();
+        assertThat(experience.getVersion()).isZero();
+
+        assertThat(educationRepository.findByCvId(cv.getId())).extracting(Education::getId)
+                .containsExactly(education.getId());
+        assertThat(experienceRepository.findByCvId(cv.getId())).extracting(Experience::getId)
+                .containsExactly(experience.getId());
+    }
+
+    // save() must persist the caller's instance; merging would give the id to a copy
+    @Test
+    void saveAssignsIdToNewInstance() {
+        User user = userRepository.save(new User("save@example.com", "hash", "Test User"));
+
+        CV cv = new CV(user.getId(), "Engineer", null);
+        assertThat(cvRepository.save(cv)).isSameAs(cv);
+        assertThat(cv.getId()).isNotNull();
+
+        Education education = new Education(cv.getId(), "MIT", "BSc", null);
+        assertThat(educationRepository.save(education)).isSameAs(education);
+        assertThat(education.getId()).isNotNull();
+
+        Experience experience = new Experience(cv.getId(), "Acme", "Developer", null);
+        assertThat(experienceRepository.save(experience)).isSameAs(experience);
+        assertThat(experience.getId()).isNotNull();
+    }
+
+    @Test
+    void saveDocumentCreatesCV() {
+        User user = userRepository.save(new User("upsert@example.com", "hash", "Test User"));
+
+        CVDocumentRequest request = new CVDocumentRequest();
+        request.setHeadline("Engineer");
+        request.setEducation(List.of(education("MIT"), education("Stanford")));
+        request.setExperience(List.of(experience("Acme")));
+        cvService.saveDocument(user.getId(), request);
+
+        CV cv = cvRepository.findByUserId(user.getId()).orElseThrow();
+        assertThat(educationRepository.findByCvId(cv.getId())).extracting(Education::getInstitution)
+                .containsExactly("MIT", "Stanford");
+        assertThat(experienceRepository.findByCvId(cv.getId())).hasSize(1);
+    }
+
+    private static EducationDto education(String institution) {
+        EducationDto education = new EducationDto();
+        education.setInstitution(institution);
+        education.setDegree("BSc");
+        return education;
+    }
+
+    private static ExperienceDto experience(String company) {
+        ExperienceDto experience = new ExperienceDto();
+        experience.setCompany(company);
+        experience.setRole("Developer");
+        return experience;
+    }
+}
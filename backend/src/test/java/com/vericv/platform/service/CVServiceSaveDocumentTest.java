@@ -0,0 +1,128 @@
+package com.vericv.platform.service;
+
+import com.vericv.platform.dto.cv.CVDocumentRequest;
+import com.vericv.platform.dto.cv.EducationDto;
+import com.vericv.platform.dto.cv.ExperienceDto;
+import com.vericv.platform.model.CV;
+import com.vericv.platform.model.Education;
+import com.vericv.platform.model.Experience;
+import com.vericv.platform.model.User;
+import com.vericv.platform.repository.CVRepository;
+import com.vericv.platform.repository.EducationRepository;
+import com.vericv.platform.repository.ExperienceRepository;
+import com.vericv.platform.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+// PUT /api/cv/me/document diffing: listed ids update, new entries insert, unlisted entries delete
+@SpringBootTest
+@ActiveProfiles("h2")
+class CVServiceSaveDocumentTest {
+
+    @Autowired
+    private CVService cvService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CVRepository cvRepository;
+
+    @Autowired
+    private EducationRepository educationRepository;
+
+    @Autowired
+    private ExperienceRepository experienceRepository;
+
+    @Test
+    void resaveUpdatesInsertsAndDeletesEntries() {
+        User user = userRepository.save(new User("resave@example.com", "hash", "Test User"));
+        cvService.saveDocument(user.getId(), request("Engineer",
+                List.of(education(null, "MIT"), education(null, "Stanford")),
+                List.of(experience(null, "Acme"), experience(null, "Globex"))));
+        CV cv = cvRepository.findByUserId(user.getId()).orElseThrow();
+        Map<String, Education> education = byName(educationRepository.findByCvId(cv.getId()),
+                Education::getInstitution);
+        Map<String, Experience> experience = byName(experienceRepository.findByCvId(cv.getId()),
+                Experience::getCompany);
+
+        cvService.saveDocument(user.getId(), request("Staff Engineer",
+                List.of(education(education.get("MIT").getId(), "MIT Sloan"), education(null, "Oxford")),
+                List.of(experience(experience.get("Globex").getId(), "Globex"))));
+
+        assertThat(cvRepository.findByUserId(user.getId())).get().extracting(CV::getId, CV::getHeadline)
+                .containsExactly(cv.getId(), "Staff Engineer");
+        List<Education> storedEducation = educationRepository.findByCvId(cv.getId());
+        assertThat(storedEducation).extracting(Education::getInstitution)
+                .containsExactlyInAnyOrder("MIT Sloan", "Oxford");
+        assertThat(storedEducation).filteredOn(entry -> entry.getInstitution().equals("MIT Sloan"))
+                .extracting(Education::getId, Education::getVersion)
+                .containsExactly(tuple(education.get("MIT").getId(), 1L));
+        // Unchanged entries are not written
+        assertThat(experienceRepository.findByCvId(cv.getId()))
+                .extracting(Experience::getId, Experience::getVersion)
+                .containsExactly(tuple(experience.get("Globex").getId(), 0L));
+    }
+
+    @Test
+    void entryOfAnotherCVIsRejectedAndNothingIsWritten() {
+        User owner = userRepository.save(new User("owner@example.com", "hash", "Test User"));
+        cvService.saveDocument(owner.getId(), request("Owner", List.of(education(null, "MIT")), List.of()));
+        Long foreignId = educationRepository.findByCvId(cvRepository.findByUserId(owner.getId()).orElseThrow().getId())
+                .get(0).getId();
+
+        User user = userRepository.save(new User("other@example.com", "hash", "Test User"));
+        cvService.saveDocument(user.getId(), request("Engineer", List.of(education(null, "Stanford")), List.of()));
+        Long cvId = cvRepository.findByUserId(user.getId()).orElseThrow().getId();
+
+        assertThatThrownBy(() -> cvService.saveDocument(user.getId(), request("Changed",
+                List.of(education(foreignId, "Taken over"), education(null, "Oxford")), List.of())))
+                .hasMessage("Education not found in this CV (or listed twice): " + foreignId);
+
+        assertThat(cvRepository.findById(cvId)).get().extracting(CV::getHeadline).isEqualTo("Engineer");
+        assertThat(educationRepository.findByCvId(cvId)).extracting(Education::getInstitution)
+                .containsExactly("Stanford");
+        assertThat(educationRepository.findById(foreignId)).get().extracting(Education::getInstitution)
+                .isEqualTo("MIT");
+    }
+
+    private static <T> Map<String, T> byName(List<T> entries, Function<T, String> name) {
+        return entries.stream().collect(Collectors.toMap(name, Function.identity()));
+    }
+
+    private static CVDocumentRequest request(String headline, List<EducationDto> education,
+            List<ExperienceDto> experience) {
+        CVDocumentRequest request = new CVDocumentRequest();
+        request.setHeadline(headline);
+        request.setEducation(education);
+        request.setExperience(experience);
+        return request;
+    }
+
+    private static EducationDto education(Long id, String institution) {
+        EducationDto education = new EducationDto();
+        education.setId(id);
+        education.setInstitution(institution);
+        education.setDegree("BSc");
+        return education;
+    }
+
+    private static ExperienceDto experience(Long id, String company) {
+        ExperienceDto experience = new ExperienceDto();
+        experience.setId(id);
+        experience.setCompany(company);
+        experience.setRole("Developer");
+        return experience;
+    }
+}
@@ -0,0 +1,72 @@
+package com.vericv.platform.service;
+
+import com.vericv.platform.repository.DirectoryEntryRepository;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DirectoryRefreshWorkerTest {
+
+    private static final long DEBOUNCE = 1_000;
+
+    private final DirectoryService directoryService = mock(DirectoryService.class);
+    private final DirectoryEntryRepository directoryEntryRepository = mock(DirectoryEntryRepository.class);
+    private final DirectoryRefreshWorker worker =
+            new DirectoryRefreshWorker(directoryService, directoryEntryRepository, DEBOUNCE, 10 * DEBOUNCE);
+
+    @Test
+    void burstOfEditsIsOneRebuild() {
+        when(directoryEntryRepository.existsByUserId(7L)).thenReturn(true);
+        worker.changed(7L, 0);
+        worker.changed(7L, 500);
+
+        worker.drain(1_000);
+        verify(directoryService, never()).updateDirectoryEntry(7L);
+        worker.drain(1_500);
+        verify(directoryService, times(1)).updateDirectoryEntry(7L);
+        assertThat(worker.pendingCount()).isZero();
+    }
+
+    @Test
+    void failedRebuildIsRetriedWithBackoff() {
+        when(directoryEntryRepository.existsByUserId(7L)).thenReturn(true);
+        when(directoryService.updateDirectoryEntry(7L))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(null);
+        worker.changed(7L, 0);
+
+        worker.drain(1_000);
+        assertThat(worker.pendingCount()).isOne();
+        // First retry after 2 x debounce
+        worker.drain(2_999);
+        verify(directoryService, times(1)).updateDirectoryEntry(7L);
+        worker.drain(3_000);
+        verify(directoryService, times(2)).updateDirectoryEntry(7L);
+        assertThat(worker.pendingCount()).isZero();
+    }
+
+    @Test
+    void retriesStopAfterMaxAttempts() {
+        when(directoryEntryRepository.existsByUserId(7L)).thenReturn(true);
+        when(directoryService.updateDirectoryEntry(7L)).thenThrow(new IllegalStateException("database down"));
+        worker.changed(7L, 0);
+
+        for (long now = 1_000; now <= 100_000; now += 1_000) {
+            worker.drain(now);
+        }
+        verify(directoryService, times(DirectoryRefreshWorker.MAX_ATTEMPTS)).updateDirectoryEntry(7L);
+        assertThat(worker.pendingCount()).isZero();
+
+        // The next edit starts over
+        doReturn(null).when(directoryService).updateDirectoryEntry(7L);
+        worker.changed(7L, 200_000);
+        worker.drain(201_000);
+        verify(directoryService, times(DirectoryRefreshWorker.MAX_ATTEMPTS + 1)).updateDirectoryEntry(7L);
+    }
+}
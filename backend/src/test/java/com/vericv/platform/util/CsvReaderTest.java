@@ -0,0 +1,79 @@
+package com.vericv.platform.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvReaderTest {
+
+    @Test
+    void quotedFieldsKeepCommasQuotesAndLineBreaks() throws IOException {
+        CsvReader csv = reader("a,\"b,c\",\"say \"\"hi\"\"\"\n\"two\nlines\",\"\",plain\n");
+
+        assertThat(csv.next()).containsExactly("a", "b,c", "say \"hi\"");
+        assertThat(csv.recordLine()).isEqualTo(1);
+        assertThat(csv.next()).containsExactly("two\nlines", "", "plain");
+        assertThat(csv.recordLine()).isEqualTo(2);
+        assertThat(csv.next()).isNull();
+    }
+
+    @Test
+    void crlfEndsRecordsButStaysInQuotedFields() throws IOException {
+        assertThat(readAll("a,b\r\n\"c\r\nd\",e\r\n\r\nf,\r\n"))
+                .containsExactly(List.of("a", "b"), List.of("c\r\nd", "e"), List.of("f", ""));
+    }
+
+    @Test
+    void lastRecordNeedsNoLineBreak() throws IOException {
+        assertThat(readAll("a,b\nc,\"d\"")).containsExactly(List.of("a", "b"), List.of("c", "d"));
+    }
+
+    @Test
+    void blankLinesAreSkippedAndLinesCounted() throws IOException {
+        CsvReader csv = reader("\n\na\n\n\"b\nb\"\nc\n");
+
+        assertThat(csv.next()).containsExactly("a");
+        assertThat(csv.recordLine()).isEqualTo(3);
+        assertThat(csv.next()).containsExactly("b\nb");
+        assertThat(csv.recordLine()).isEqualTo(5);
+        assertThat(csv.next()).containsExactly("c");
+        assertThat(csv.recordLine()).isEqualTo(7);
+    }
+
+    @Test
+    void unterminatedQuoteIsAnError() throws IOException {
+        CsvReader csv = reader("a,b\nc,\"d\ne\n");
+
+        assertThat(csv.next()).containsExactly("a", "b");
+        assertThatThrownBy(csv::next).isInstanceOf(IOException.class)
+                .hasMessage("Unterminated quoted field in CSV record on line 2");
+    }
+
+    @Test
+    void oversizeRecordIsAnError() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("abc,def\n\"" + "x".repeat(20) + "\"\n"), 10);
+
+        assertThat(csv.next()).containsExactly("abc", "def");
+        assertThatThrownBy(csv::next).isInstanceOf(IOException.class)
+                .hasMessage("CSV record on line 2 is longer than 10 characters");
+    }
+
+    private static CsvReader reader(String text) {
+        return new CsvReader(new StringReader(text), 1_000);
+    }
+
+    private static List<List<String>> readAll(String text) throws IOException {
+        CsvReader csv = reader(text);
+        List<List<String>> records = new ArrayList<>();
+        for (List<String> record = csv.next(); record != null; record = csv.next()) {
+            records.add(record);
+        }
+        return records;
+    }
+}
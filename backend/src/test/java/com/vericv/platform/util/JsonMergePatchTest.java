@@ -0,0 +1,61 @@
+package com.vericv.platform.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonMergePatchTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // RFC 7396 Appendix A, with single quotes standing in for double quotes
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', quoteCharacter = '"', textBlock = """
+            {'a':'b'}         | {'a':'c'}                 | {'a':'c'}
+            {'a':'b'}         | {'b':'c'}                 | {'a':'b','b':'c'}
+            {'a':'b'}         | {'a':null}                | {}
+            {'a':'b','b':'c'} | {'a':null}                | {'b':'c'}
+            {'a':['b']}       | {'a':'c'}                 | {'a':'c'}
+            {'a':'c'}         | {'a':['b']}               | {'a':['b']}
+            {'a':{'b':'c'}}   | {'a':{'b':'d','c':null}}  | {'a':{'b':'d'}}
+            {'a':[{'b':'c'}]} | {'a':[1]}                 | {'a':[1]}
+            ['a','b']         | ['c','d']                 | ['c','d']
+            {'a':'b'}         | ['c']                     | ['c']
+            {'a':'foo'}       | null                      | null
+            {'a':'foo'}       | 'bar'                     | 'bar'
+            {'e':null}        | {'a':1}                   | {'e':null,'a':1}
+            [1,2]             | {'a':'b','c':null}        | {'a':'b'}
+            {}                | {'a':{'bb':{'ccc':null}}} | {'a':{'bb':{}}}
+            """)
+    void rfcAppendixExamples(String target, String patch, String expected) throws Exception {
+        assertThat(JsonMergePatch.apply(json(target), json(patch))).isEqualTo(json(expected));
+    }
+
+    @Test
+    void nestedObjectsMergeMemberByMember() throws Exception {
+        JsonNode target = json("{'title':'Goodbye!','author':{'givenName':'John','familyName':'Doe'},"
+                + "'tags':['example','sample'],'content':'This will be unchanged'}");
+        JsonNode patch = json("{'title':'Hello!','phoneNumber':'+01-123-456-7890',"
+                + "'author':{'familyName':null},'tags':['example']}");
+
+        assertThat(JsonMergePatch.apply(target, patch)).isEqualTo(json("{'title':'Hello!',"
+                + "'author':{'givenName':'John'},'tags':['example'],'content':'This will be unchanged',"
+                + "'phoneNumber':'+01-123-456-7890'}"));
+    }
+
+    @Test
+    void targetIsNotModified() throws Exception {
+        JsonNode target = json("{'a':{'b':'c'}}");
+        JsonMergePatch.apply(target, json("{'a':{'b':null}}"));
+
+        assertThat(target).isEqualTo(json("{'a':{'b':'c'}}"));
+    }
+
+    private static JsonNode json(String text) throws Exception {
+        return MAPPER.readTree(text.replace('\'', '"'));
+    }
+}